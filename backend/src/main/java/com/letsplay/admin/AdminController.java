@@ -1,6 +1,8 @@
 package com.letsplay.admin;
 
+import com.letsplay.booking.BookingExporter;
 import com.letsplay.ground.Ground;
+import com.letsplay.ground.GroundCatalog;
 import com.letsplay.ground.GroundRepository;
 import com.letsplay.user.User;
 import com.letsplay.user.UserRepository;
@@ -23,6 +25,12 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private GroundCatalog groundCatalog;
+
+    @Autowired
+    private BookingExporter bookingExporter;
+
     // --- Grounds Management ---
 
     @GetMapping("/grounds")
@@ -43,13 +51,20 @@ public class AdminController {
         } else {
             return ResponseEntity.badRequest().build();
         }
+        if (!hasValidCoordinates(ground)) {
+            return ResponseEntity.badRequest().build();
+        }
 
         Ground savedGround = groundRepository.save(ground);
+        groundCatalog.refreshAfterCommit();
         return ResponseEntity.ok(savedGround);
     }
 
     @PutMapping("/grounds/{id}")
     public ResponseEntity<Ground> updateGround(@PathVariable Long id, @RequestBody Ground groundDetails) {
+        if (!hasValidCoordinates(groundDetails)) {
+            return ResponseEntity.badRequest().build();
+        }
         return groundRepository.findById(id)
                 .map(ground -> {
                     ground.setName(groundDetails.getName());
@@ -58,13 +73,17 @@ public class AdminController {
                     ground.setDescription(groundDetails.getDescription());
                     ground.setPricePerHour(groundDetails.getPricePerHour());
                     ground.setImageUrl(groundDetails.getImageUrl());
+                    ground.setLatitude(groundDetails.getLatitude());
+                    ground.setLongitude(groundDetails.getLongitude());
 
                     // Update owner if provided
                     if (groundDetails.getOwner() != null && groundDetails.getOwner().getId() != null) {
                         userRepository.findById(groundDetails.getOwner().getId()).ifPresent(ground::setOwner);
                     }
 
-                    return ResponseEntity.ok(groundRepository.save(ground));
+                    Ground savedGround = groundRepository.save(ground);
+                    groundCatalog.refreshAfterCommit();
+                    return ResponseEntity.ok(savedGround);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -73,11 +92,41 @@ public class AdminController {
     public ResponseEntity<Void> deleteGround(@PathVariable Long id) {
         if (groundRepository.existsById(id)) {
             groundRepository.deleteById(id);
+            groundCatalog.refreshAfterCommit();
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Coordinates are optional, but must come as a pair and be on the map
+    private static boolean hasValidCoordinates(Ground ground) {
+        Double latitude = ground.getLatitude();
+        Double longitude = ground.getLongitude();
+        if (latitude == null || longitude == null) {
+            return latitude == null && longitude == null;
+        }
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    // --- Bookings Export ---
+
+    // Every booking with user ids and amounts; rate-limited, as each call reads the whole table
+    @GetMapping("/bookings/export")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BookingExporter.Format exportFormat;
+        try {
+            exportFormat = BookingExporter.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + exportFormat.fileName() + "\"")
+                .body(out -> bookingExporter.export(exportFormat, out));
+    }
+
     // --- User Management ---
 
     @GetMapping("/users")
@@ -0,0 +1,17 @@
+package com.letsplay.booking;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Free/busy matrix for several grounds over a date range. For each ground there is one string per
+ * day from {@code from} to {@code to}; character {@code i} covers minutes
+ * {@code [i * slotMinutes, (i + 1) * slotMinutes)} of that day and is '1' when any part of it is booked.
+ */
+public record AvailabilityMatrix(
+        LocalDate from,
+        LocalDate to,
+        int slotMinutes,
+        Map<Long, List<String>> busy) {
+}
@@ -0,0 +1,45 @@
+package com.letsplay.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of an active booking as held by {@link SlotAvailabilityIndex}.
+ * Carries only the fields the booking calendar needs, so slot lookups never touch
+ * the User or Ground entities.
+ */
+public record BookedSlot(
+        Long id,
+        Long groundId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Booking.BookingStatus status,
+        Boolean isPublic,
+        Integer maxPlayers,
+        Integer joinedPlayers,
+        Boolean slotReserved) {
+
+    public static BookedSlot of(Booking booking) {
+        return new BookedSlot(
+                booking.getId(),
+                booking.getGround().getId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getStatus(),
+                booking.getIsPublic(),
+                booking.getMaxPlayers(),
+                booking.getJoinedPlayers(),
+                booking.getSlotReserved());
+    }
+
+    /**
+     * A booking holds a firm claim on its time range once the reservation step has run for it, or
+     * once it is confirmed.
+     */
+    public boolean isClaimed() {
+        return status == Booking.BookingStatus.CONFIRMED || Boolean.TRUE.equals(slotReserved);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && start.isBefore(endTime);
+    }
+}
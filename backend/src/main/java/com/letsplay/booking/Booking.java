@@ -6,7 +6,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_start_time_id", columnList = "startTime, id"),
+        @Index(name = "idx_bookings_series_id", columnList = "seriesId")
+})
 public class Booking {
 
     @Id
@@ -38,6 +41,13 @@ public class Booking {
 
     private Double totalAmount;
     private Boolean paymentSettled = false;
+    private Boolean slotReserved = false;
+
+    // Set when the booking is one occurrence of a BookingSeries
+    private Long seriesId;
+
+    // A PENDING booking holds its slot until this time; see SlotHoldManager
+    private LocalDateTime holdExpiresAt;
 
     public enum BookingStatus {
         PENDING,
@@ -155,4 +165,28 @@ public class Booking {
     public void setPaymentSettled(Boolean paymentSettled) {
         this.paymentSettled = paymentSettled;
     }
+
+    public Boolean getSlotReserved() {
+        return slotReserved;
+    }
+
+    public void setSlotReserved(Boolean slotReserved) {
+        this.slotReserved = slotReserved;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
 }
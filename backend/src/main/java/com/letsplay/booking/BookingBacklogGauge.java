@@ -0,0 +1,56 @@
+package com.letsplay.booking;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How many bookings are still waiting for their workflow, whichever orchestrator runs them. Sampled
+ * in the background so admission checks on the request path only read a field.
+ */
+@Component
+public class BookingBacklogGauge {
+
+    private final BookingRepository bookingRepository;
+    private final long sampleIntervalMillis;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-backlog-gauge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long pending;
+
+    public BookingBacklogGauge(BookingRepository bookingRepository,
+            @Value("${booking.backlog.sample-interval-ms:1000}") long sampleIntervalMillis) {
+        this.bookingRepository = bookingRepository;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        sampler.scheduleWithFixedDelay(this::sample, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    public long pending() {
+        return pending;
+    }
+
+    void sample() {
+        try {
+            pending = bookingRepository.countByStatus(Booking.BookingStatus.PENDING);
+        } catch (Exception e) {
+            // Keep the last reading; the database being unreachable is reported elsewhere
+            System.err.println("Booking backlog sample failed: " + e.getMessage());
+        }
+    }
+}
@@ -7,28 +7,59 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/bookings")
 public class BookingController {
 
+    private static final int MAX_AVAILABILITY_GROUNDS = 50;
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingService bookingService;
     private final com.letsplay.join.JoinRequestService joinRequestService;
     private final com.letsplay.user.UserRepository userRepository;
+    private final BookingStatusPublisher bookingStatusPublisher;
+    private final BookingSeriesService bookingSeriesService;
 
     public BookingController(BookingService bookingService, com.letsplay.join.JoinRequestService joinRequestService,
-            com.letsplay.user.UserRepository userRepository) {
+            com.letsplay.user.UserRepository userRepository, BookingStatusPublisher bookingStatusPublisher,
+            BookingSeriesService bookingSeriesService) {
         this.bookingService = bookingService;
         this.joinRequestService = joinRequestService;
         this.userRepository = userRepository;
+        this.bookingStatusPublisher = bookingStatusPublisher;
+        this.bookingSeriesService = bookingSeriesService;
     }
 
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@RequestBody Booking booking, java.security.Principal principal) {
+    public ResponseEntity<Booking> createBooking(@RequestBody Booking booking,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.letsplay.security.JwtPrincipal principal) {
         if (principal == null) {
             throw new RuntimeException("User must be logged in");
         }
-        com.letsplay.user.User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        booking.setUser(user);
+        // The token already names the user; no need to load them just to set the foreign key
+        booking.setUser(userRepository.getReferenceById(principal.userId()));
         return ResponseEntity.ok(bookingService.createBooking(booking));
     }
 
+    // Books the same slot every intervalDays days; all or nothing, 409 with the clashing dates otherwise
+    @PostMapping("/series")
+    public ResponseEntity<BookingSeriesResult> createSeries(@RequestBody BookingSeriesRequest request,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.letsplay.security.JwtPrincipal principal) {
+        if (principal == null) {
+            throw new RuntimeException("User must be logged in");
+        }
+        if (request.groundId() == null || request.startTime() == null || request.endTime() == null
+                || request.occurrences() == null || request.intervalDays() == null
+                || request.occurrences() < 1 || request.occurrences() > BookingSeriesService.MAX_OCCURRENCES
+                || request.intervalDays() < 1 || !request.endTime().isAfter(request.startTime())
+                || request.endTime().isAfter(request.startTime().plusDays(request.intervalDays()))
+                || request.startTime().isBefore(java.time.LocalDateTime.now())) {
+            return ResponseEntity.badRequest().build();
+        }
+        BookingSeriesResult result = bookingSeriesService.createSeries(
+                userRepository.getReferenceById(principal.userId()), request);
+        return result.isCreated()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.status(org.springframework.http.HttpStatus.CONFLICT).body(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
         return bookingService.getBooking(id)
@@ -36,36 +67,95 @@ public class BookingController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Finer-grained than the booking status, and served by the orchestrator while the booking is pending
+    @GetMapping("/{id}/progress")
+    public ResponseEntity<com.letsplay.workflow.BookingProgress> getProgress(@PathVariable Long id) {
+        return bookingService.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Server-sent-events fallback for clients that cannot use the STOMP status topic
+    @GetMapping(path = "/{id}/events", produces = org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.SseEmitter> streamStatus(
+            @PathVariable Long id) {
+        return bookingStatusPublisher.subscribe(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
-    public ResponseEntity<java.util.List<Booking>> getAllBookings() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+    public ResponseEntity<java.util.List<BookingSummary>> getBookings(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam(defaultValue = "50") int size) {
+        KeysetCursor after;
+        try {
+            after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return withNextCursor(bookingService.getBookings(after, from, Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
     }
 
     @GetMapping("/public")
-    public ResponseEntity<java.util.List<Booking>> getPublicBookings() {
-        return ResponseEntity.ok(bookingService.getPublicBookings());
+    public ResponseEntity<java.util.List<BookingSummary>> getPublicBookings(@RequestParam(required = false) String sport,
+            @RequestParam(required = false) Long groundId,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        KeysetCursor after;
+        try {
+            after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        KeysetPage<BookingSummary> page = bookingService.getPublicBookings(sport, groundId, from, to, after,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return withNextCursor(page);
     }
 
     // Changed to create a request
     // Changed to create a request
     @PostMapping("/{id}/join")
-    public ResponseEntity<?> joinBooking(@PathVariable Long id, java.security.Principal principal) {
+    public ResponseEntity<?> joinBooking(@PathVariable Long id,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.letsplay.security.JwtPrincipal principal) {
         if (principal == null) {
             throw new RuntimeException("User must be logged in");
         }
-        com.letsplay.user.User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(joinRequestService.createRequest(id, user.getId()));
+        return ResponseEntity.ok(joinRequestService.createRequest(id, principal.userId()));
     }
 
     @GetMapping("/{id}/requests")
-    public ResponseEntity<java.util.List<com.letsplay.join.JoinRequest>> getBookingRequests(@PathVariable Long id) {
+    public ResponseEntity<java.util.List<com.letsplay.join.JoinRequestSummary>> getBookingRequests(@PathVariable Long id) {
         return ResponseEntity.ok(joinRequestService.getRequestsForBooking(id));
     }
 
     @GetMapping("/slots")
-    public ResponseEntity<java.util.List<Booking>> getSlots(@RequestParam Long groundId,
+    public ResponseEntity<java.util.List<BookedSlot>> getSlots(@RequestParam Long groundId,
             @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate date) {
         return ResponseEntity.ok(bookingService.getBookedSlots(groundId, date));
     }
+
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityMatrix> getAvailability(@RequestParam java.util.Set<Long> groundIds,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to,
+            @RequestParam(defaultValue = "60") int slotMinutes) {
+        long days = java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
+        if (groundIds.isEmpty() || groundIds.size() > MAX_AVAILABILITY_GROUNDS
+                || days < 1 || days > MAX_AVAILABILITY_DAYS
+                || slotMinutes <= 0 || (24 * 60) % slotMinutes != 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingService.getAvailability(groundIds, from, to, slotMinutes));
+    }
+
+    private static <T> ResponseEntity<java.util.List<T>> withNextCursor(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(KeysetCursor.HEADER, page.nextCursor().encode());
+        }
+        return response.body(page.items());
+    }
 }
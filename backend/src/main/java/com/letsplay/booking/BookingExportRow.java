@@ -0,0 +1,25 @@
+package com.letsplay.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the bookings export. Carries ids instead of the user and ground entities so rows can
+ * be streamed without loading either.
+ */
+public record BookingExportRow(Long id, Long userId, Long groundId, LocalDateTime startTime, LocalDateTime endTime,
+        Booking.BookingStatus status, Boolean isPublic, Integer maxPlayers, Integer joinedPlayers,
+        Double totalAmount, Boolean paymentSettled) {
+
+    static final String CSV_HEADER = "id,userId,groundId,startTime,endTime,status,isPublic,maxPlayers,"
+            + "joinedPlayers,totalAmount,paymentSettled";
+
+    // Every column is a number, boolean, timestamp or enum, so nothing needs quoting
+    String toCsv() {
+        return String.join(",", str(id), str(userId), str(groundId), str(startTime), str(endTime), str(status),
+                str(isPublic), str(maxPlayers), str(joinedPlayers), str(totalAmount), str(paymentSettled));
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,76 @@
+package com.letsplay.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Writes every booking to an output stream as NDJSON or CSV. Rows are pulled from a database cursor
+ * and written one at a time, so memory use stays flat however many bookings there are.
+ */
+@Component
+public class BookingExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String fileName() {
+            return "bookings." + extension;
+        }
+    }
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookingExporter(BookingRepository bookingRepository, ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // The stream needs an open transaction for as long as the cursor is read
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(BookingExportRow.CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<BookingExportRow> rows = bookingRepository.streamExportRows()) {
+            rows.forEach(row -> {
+                try {
+                    writer.write(format == Format.CSV ? row.toCsv() : objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client disconnected mid-download
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
@@ -1,13 +1,135 @@
 package com.letsplay.booking;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Select list for BookingSummary; queries using it must alias the ground g and the user u
+    String SUMMARY = "SELECT new com.letsplay.booking.BookingSummary(b.id, u.id, u.name, g.id, g.name, g.location, "
+            + "g.sportType, g.imageUrl, g.pricePerHour, b.startTime, b.endTime, b.status, b.isPublic, b.maxPlayers, "
+            + "b.joinedPlayers, b.totalAmount) FROM Booking b JOIN b.ground g JOIN b.user u ";
+
     List<Booking> findByUserId(Long userId);
 
     List<Booking> findByGroundId(Long groundId);
 
     java.util.List<Booking> findByGroundIdAndStartTimeBetween(Long groundId,
             java.time.LocalDateTime start, java.time.LocalDateTime end);
+
+    // Overlap query: every booking on the ground whose [startTime, endTime) intersects [from, to)
+    List<Booking> findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(Long groundId,
+            java.time.LocalDateTime to, java.time.LocalDateTime from,
+            java.util.Collection<Booking.BookingStatus> statuses);
+
+    List<Booking> findByGroundIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+            java.util.Collection<Long> groundIds, java.time.LocalDateTime to, java.time.LocalDateTime from,
+            java.util.Collection<Booking.BookingStatus> statuses);
+
+    // Keyset-paginated feed of public games with spots left. Served by the partial index
+    // idx_bookings_open_public (see DatabaseIndexInitializer); groundId = 0 and sport = '' mean "any".
+    @Query(SUMMARY
+            + "WHERE b.isPublic = true AND b.status = :status AND b.joinedPlayers < b.maxPlayers "
+            + "AND (b.startTime > :afterTime OR (b.startTime = :afterTime AND b.id > :afterId)) "
+            + "AND b.startTime < :before "
+            + "AND (:groundId = 0 OR g.id = :groundId) "
+            + "AND (:sport = '' OR lower(g.sportType) = :sport) "
+            + "ORDER BY b.startTime, b.id")
+    List<BookingSummary> findOpenPublicGames(@Param("status") Booking.BookingStatus status,
+            @Param("afterTime") java.time.LocalDateTime afterTime, @Param("afterId") Long afterId,
+            @Param("before") java.time.LocalDateTime before, @Param("groundId") Long groundId,
+            @Param("sport") String sport, Pageable pageable);
+
+    // Keyset page over all bookings in (startTime, id) order, served by idx_bookings_start_time_id
+    @Query(SUMMARY
+            + "WHERE b.startTime > :afterTime OR (b.startTime = :afterTime AND b.id > :afterId) "
+            + "ORDER BY b.startTime, b.id")
+    List<BookingSummary> findPageAfter(@Param("afterTime") java.time.LocalDateTime afterTime,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    // Flat rows for the export; the constructor expression keeps users and grounds out of the
+    // persistence context, and the fetch size makes the driver use a cursor instead of buffering
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.letsplay.booking.BookingExportRow(b.id, b.user.id, b.ground.id, b.startTime, "
+            + "b.endTime, b.status, b.isPublic, b.maxPlayers, b.joinedPlayers, b.totalAmount, b.paymentSettled) "
+            + "FROM Booking b ORDER BY b.id")
+    Stream<BookingExportRow> streamExportRows();
+
+    // Backlog of bookings waiting for their workflow, see BookingBacklogGauge
+    long countByStatus(Booking.BookingStatus status);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.seriesId = :seriesId ORDER BY b.startTime")
+    List<Long> findIdsBySeriesId(@Param("seriesId") Long seriesId);
+
+    // Claimed bookings on the ground that overlap the given one, whichever node claimed them
+    @Query("SELECT o.id FROM Booking o WHERE o.ground.id = :groundId AND o.id <> :id "
+            + "AND o.startTime < :endTime AND :startTime < o.endTime "
+            + "AND (o.status = com.letsplay.booking.Booking$BookingStatus.CONFIRMED "
+            + "OR (o.status = com.letsplay.booking.Booking$BookingStatus.PENDING AND o.slotReserved = true)) "
+            + "ORDER BY o.id")
+    List<Long> findClaimedOverlaps(@Param("id") Long id, @Param("groundId") Long groundId,
+            @Param("startTime") java.time.LocalDateTime startTime, @Param("endTime") java.time.LocalDateTime endTime);
+
+    // Only a PENDING booking can claim its slot, and only while no other booking holds an overlapping
+    // claim on the ground; the database is the final word, the in-memory index only fails fast
+    @Modifying
+    @Query("UPDATE Booking b SET b.slotReserved = true "
+            + "WHERE b.id = :id AND b.status = com.letsplay.booking.Booking$BookingStatus.PENDING "
+            + "AND NOT EXISTS (SELECT o.id FROM Booking o WHERE o.ground.id = b.ground.id AND o.id <> b.id "
+            + "AND o.startTime < b.endTime AND b.startTime < o.endTime "
+            + "AND (o.status = com.letsplay.booking.Booking$BookingStatus.CONFIRMED "
+            + "OR (o.status = com.letsplay.booking.Booking$BookingStatus.PENDING AND o.slotReserved = true)))")
+    int claimSlot(@Param("id") Long id);
+
+    // Takes one player spot only while the game has room; 0 means it was already full
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.joinedPlayers = b.joinedPlayers + 1 "
+            + "WHERE b.id = :id AND b.joinedPlayers < b.maxPlayers")
+    int claimPlayerSpot(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids")
+    int updateStatus(@Param("ids") java.util.Collection<Long> ids, @Param("status") Booking.BookingStatus status);
+
+    // Confirms only bookings that are still PENDING, so an expired hold cannot be confirmed late
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = com.letsplay.booking.Booking$BookingStatus.CONFIRMED "
+            + "WHERE b.id IN :ids AND b.status = com.letsplay.booking.Booking$BookingStatus.PENDING")
+    int confirmPending(@Param("ids") java.util.Collection<Long> ids);
+
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids "
+            + "AND b.status = com.letsplay.booking.Booking$BookingStatus.PENDING AND b.holdExpiresAt <= :now")
+    List<Long> lockExpiredHolds(@Param("ids") java.util.Collection<Long> ids,
+            @Param("now") java.time.LocalDateTime now);
+
+    @Query("SELECT new com.letsplay.booking.SlotHold(b.id, b.holdExpiresAt) FROM Booking b "
+            + "WHERE b.status = com.letsplay.booking.Booking$BookingStatus.PENDING AND b.holdExpiresAt IS NOT NULL")
+    List<SlotHold> findPendingHolds();
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.holdExpiresAt = :expiresAt "
+            + "WHERE b.status = com.letsplay.booking.Booking$BookingStatus.PENDING AND b.holdExpiresAt IS NULL")
+    int assignMissingHolds(@Param("expiresAt") java.time.LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.paymentSettled = true WHERE b.id IN :ids")
+    int markPaymentSettled(@Param("ids") java.util.Collection<Long> ids);
+
+    // After the charge for bookings that could not be confirmed has been refunded
+    @Modifying
+    @Query("UPDATE Booking b SET b.paymentSettled = false WHERE b.id IN :ids")
+    int markPaymentRefunded(@Param("ids") java.util.Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.temporalWorkflowId = :workflowId WHERE b.id = :id")
+    int updateTemporalWorkflowId(@Param("id") Long id, @Param("workflowId") String workflowId);
 }
@@ -0,0 +1,102 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.Ground;
+import com.letsplay.user.User;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A recurring booking: the same ground and time every {@code intervalDays} days, {@code occurrences}
+ * times. Each occurrence is a regular {@link Booking} carrying the series id; all of them are
+ * processed by one series workflow.
+ */
+@Entity
+@Table(name = "booking_series")
+public class BookingSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ground_id", nullable = false)
+    private Ground ground;
+
+    @Column(nullable = false)
+    private LocalDateTime firstStartTime;
+
+    @Column(nullable = false)
+    private LocalDateTime firstEndTime;
+
+    private int occurrences;
+    private int intervalDays;
+
+    @Enumerated(EnumType.STRING)
+    private Booking.BookingStatus status;
+
+    private String temporalWorkflowId;
+    private LocalDateTime createdAt;
+
+    public BookingSeries() {
+    }
+
+    public BookingSeries(User user, Ground ground, LocalDateTime firstStartTime, LocalDateTime firstEndTime,
+            int occurrences, int intervalDays) {
+        this.user = user;
+        this.ground = ground;
+        this.firstStartTime = firstStartTime;
+        this.firstEndTime = firstEndTime;
+        this.occurrences = occurrences;
+        this.intervalDays = intervalDays;
+        this.status = Booking.BookingStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Ground getGround() {
+        return ground;
+    }
+
+    public LocalDateTime getFirstStartTime() {
+        return firstStartTime;
+    }
+
+    public LocalDateTime getFirstEndTime() {
+        return firstEndTime;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+
+    public String getTemporalWorkflowId() {
+        return temporalWorkflowId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.letsplay.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+
+    @Modifying
+    @Query("UPDATE BookingSeries s SET s.temporalWorkflowId = :workflowId WHERE s.id = :id")
+    int updateTemporalWorkflowId(@Param("id") Long id, @Param("workflowId") String workflowId);
+
+    @Modifying
+    @Query("UPDATE BookingSeries s SET s.status = :status WHERE s.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") Booking.BookingStatus status);
+}
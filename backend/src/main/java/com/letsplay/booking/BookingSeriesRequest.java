@@ -0,0 +1,8 @@
+package com.letsplay.booking;
+
+import java.time.LocalDateTime;
+
+// Body of POST /bookings/series; startTime and endTime describe the first occurrence
+public record BookingSeriesRequest(Long groundId, LocalDateTime startTime, LocalDateTime endTime,
+        Integer occurrences, Integer intervalDays, Boolean isPublic, Integer maxPlayers, Double totalAmount) {
+}
@@ -0,0 +1,17 @@
+package com.letsplay.booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a series request: either the created series and its booking ids, or the occurrences
+ * that clash with existing bookings (start time to conflicting booking id), in which case nothing
+ * was created.
+ */
+public record BookingSeriesResult(Long seriesId, List<Long> bookingIds, Map<LocalDateTime, Long> conflicts) {
+
+    public boolean isCreated() {
+        return seriesId != null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.Ground;
+import com.letsplay.ground.GroundRepository;
+import com.letsplay.user.User;
+import com.letsplay.workflow.BookingOrchestrator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates recurring bookings in one go. All occurrences are checked against the availability index
+ * together, written with a single JDBC batch and handed to one series workflow, instead of going
+ * through createBooking and a workflow each.
+ */
+@Service
+public class BookingSeriesService {
+
+    public static final int MAX_OCCURRENCES = 52;
+
+    private static final int BATCH_SIZE = 100;
+    private static final String INSERT_OCCURRENCE = "INSERT INTO bookings (user_id, ground_id, start_time, end_time, "
+            + "status, is_public, max_players, joined_players, total_amount, payment_settled, slot_reserved, "
+            + "series_id, hold_expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, 1, ?, false, false, ?, ?)";
+
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final GroundRepository groundRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final SlotHoldManager slotHoldManager;
+    private final BookingOrchestrator bookingOrchestrator;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingSeriesService(BookingSeriesRepository bookingSeriesRepository, GroundRepository groundRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex, SlotHoldManager slotHoldManager,
+            BookingOrchestrator bookingOrchestrator, JdbcTemplate jdbcTemplate) {
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.groundRepository = groundRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.slotHoldManager = slotHoldManager;
+        this.bookingOrchestrator = bookingOrchestrator;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Books every occurrence of the series or none of them: if any occurrence clashes with an
+     * existing booking the conflicts are returned and nothing is written.
+     */
+    @Transactional
+    public BookingSeriesResult createSeries(User user, BookingSeriesRequest request) {
+        Ground ground = groundRepository.findById(request.groundId())
+                .orElseThrow(() -> new RuntimeException("Ground not found"));
+
+        List<Booking> occurrences = new ArrayList<>(request.occurrences());
+        for (int i = 0; i < request.occurrences(); i++) {
+            long offset = (long) i * request.intervalDays();
+            Booking occurrence = new Booking(null, user, ground, request.startTime().plusDays(offset),
+                    request.endTime().plusDays(offset), Booking.BookingStatus.PENDING, null);
+            occurrence.setIsPublic(Boolean.TRUE.equals(request.isPublic()));
+            occurrence.setMaxPlayers(request.maxPlayers() != null ? request.maxPlayers() : 1);
+            occurrence.setTotalAmount(request.totalAmount());
+            occurrences.add(occurrence);
+        }
+
+        Map<java.time.LocalDateTime, BookedSlot> conflicts = slotAvailabilityIndex.findConflicts(occurrences);
+        if (!conflicts.isEmpty()) {
+            Map<java.time.LocalDateTime, Long> conflictIds = new java.util.LinkedHashMap<>();
+            conflicts.forEach((start, slot) -> conflictIds.put(start, slot.id()));
+            return new BookingSeriesResult(null, List.of(), conflictIds);
+        }
+
+        BookingSeries series = bookingSeriesRepository.save(new BookingSeries(user, ground, request.startTime(),
+                request.endTime(), request.occurrences(), request.intervalDays()));
+
+        java.time.LocalDateTime holdExpiresAt = slotHoldManager.newDeadline();
+
+        // IDENTITY ids keep Hibernate from batching inserts, so the occurrences go in through JDBC
+        jdbcTemplate.batchUpdate(INSERT_OCCURRENCE, occurrences, BATCH_SIZE, (statement, occurrence) -> {
+            statement.setLong(1, user.getId());
+            statement.setLong(2, ground.getId());
+            statement.setTimestamp(3, Timestamp.valueOf(occurrence.getStartTime()));
+            statement.setTimestamp(4, Timestamp.valueOf(occurrence.getEndTime()));
+            statement.setString(5, Booking.BookingStatus.PENDING.name());
+            statement.setBoolean(6, occurrence.getIsPublic());
+            statement.setInt(7, occurrence.getMaxPlayers());
+            if (occurrence.getTotalAmount() != null) {
+                statement.setDouble(8, occurrence.getTotalAmount());
+            } else {
+                statement.setNull(8, Types.DOUBLE);
+            }
+            statement.setLong(9, series.getId());
+            statement.setTimestamp(10, Timestamp.valueOf(holdExpiresAt));
+        });
+
+        // Occurrences never overlap, so start time order matches the order they were built in
+        List<Long> bookingIds = jdbcTemplate.queryForList(
+                "SELECT id FROM bookings WHERE series_id = ? ORDER BY start_time", Long.class, series.getId());
+        for (int i = 0; i < occurrences.size(); i++) {
+            Booking occurrence = occurrences.get(i);
+            occurrence.setId(bookingIds.get(i));
+            occurrence.setSeriesId(series.getId());
+            occurrence.setHoldExpiresAt(holdExpiresAt);
+            slotAvailabilityIndex.record(occurrence);
+            slotHoldManager.track(occurrence.getId(), holdExpiresAt);
+        }
+
+        bookingOrchestrator.enqueueSeries(series.getId());
+        return new BookingSeriesResult(series.getId(), bookingIds, Map.of());
+    }
+}
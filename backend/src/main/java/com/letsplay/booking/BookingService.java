@@ -1,54 +1,88 @@
 package com.letsplay.booking;
 
-import com.letsplay.workflow.BookingWorkflow;
-import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowOptions;
+import com.letsplay.workflow.BookingOrchestrator;
+import com.letsplay.workflow.BookingProgress;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class BookingService {
 
+    private static final java.time.LocalDateTime OPEN_START = java.time.LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final java.time.LocalDateTime OPEN_END = java.time.LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final BookingRepository bookingRepository;
-    private final WorkflowClient workflowClient;
+    private final BookingOrchestrator bookingOrchestrator;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final SlotHoldManager slotHoldManager;
 
-    public BookingService(BookingRepository bookingRepository, WorkflowClient workflowClient) {
+    public BookingService(BookingRepository bookingRepository, BookingOrchestrator bookingOrchestrator,
+            SlotAvailabilityIndex slotAvailabilityIndex, SlotHoldManager slotHoldManager) {
         this.bookingRepository = bookingRepository;
-        this.workflowClient = workflowClient;
+        this.bookingOrchestrator = bookingOrchestrator;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.slotHoldManager = slotHoldManager;
     }
 
+    @Transactional
     public Booking createBooking(Booking booking) {
         booking.setStatus(Booking.BookingStatus.PENDING);
+        booking.setHoldExpiresAt(slotHoldManager.newDeadline());
         Booking savedBooking = bookingRepository.save(booking);
+        slotAvailabilityIndex.record(savedBooking);
+        slotHoldManager.track(savedBooking.getId(), savedBooking.getHoldExpiresAt());
 
-        // Start Temporal Workflow
-        BookingWorkflow workflow = workflowClient.newWorkflowStub(BookingWorkflow.class,
-                WorkflowOptions.newBuilder()
-                        .setTaskQueue("BookingTaskQueue")
-                        .setWorkflowId("booking-" + savedBooking.getId())
-                        .build());
-
-        // Asynchronously start the workflow
-        WorkflowClient.start(workflow::processBooking, savedBooking.getId());
-
-        savedBooking.setTemporalWorkflowId("booking-" + savedBooking.getId());
-        return bookingRepository.save(savedBooking);
+        // Processing starts once this transaction commits
+        bookingOrchestrator.enqueue(savedBooking.getId());
+        return savedBooking;
     }
 
     public java.util.Optional<Booking> getBooking(Long id) {
         return bookingRepository.findById(id);
     }
 
-    public java.util.List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public java.util.Optional<BookingProgress> getProgress(Long id) {
+        return bookingOrchestrator.progress(id).or(() -> bookingRepository.findById(id).map(BookingProgress::of));
     }
 
-    public java.util.List<Booking> getPublicBookings() {
-        return bookingRepository.findAll().stream()
-                .filter(b -> b.getIsPublic() && b.getStatus() == Booking.BookingStatus.CONFIRMED
-                        && b.getJoinedPlayers() < b.getMaxPlayers())
-                .toList();
+    // Starts at the given day when there is one, so upcoming bookings do not sit behind years of history
+    public KeysetPage<BookingSummary> getBookings(KeysetCursor cursor, java.time.LocalDate from, int size) {
+        java.time.LocalDateTime windowStart = from != null ? from.atStartOfDay() : OPEN_START;
+        KeysetCursor after = cursor != null && !cursor.time().isBefore(windowStart)
+                ? cursor
+                : new KeysetCursor(windowStart, 0L);
+        return nextPage(bookingRepository.findPageAfter(after.time(), after.id(),
+                org.springframework.data.domain.PageRequest.of(0, size + 1)), size);
     }
 
+    public KeysetPage<BookingSummary> getPublicBookings(String sport, Long groundId, java.time.LocalDate from,
+            java.time.LocalDate to, KeysetCursor cursor, int size) {
+        java.time.LocalDateTime windowStart = (from != null ? from : java.time.LocalDate.now()).atStartOfDay();
+        java.time.LocalDateTime windowEnd = to != null ? to.plusDays(1).atStartOfDay() : OPEN_END;
+
+        // Resume after the cursor, but never before the start of the window; a cursor exactly at the
+        // start (a game at midnight) is kept, or the same page would come back forever
+        KeysetCursor after = cursor != null && !cursor.time().isBefore(windowStart)
+                ? cursor
+                : new KeysetCursor(windowStart, 0L);
+
+        java.util.List<BookingSummary> rows = bookingRepository.findOpenPublicGames(Booking.BookingStatus.CONFIRMED,
+                after.time(), after.id(), windowEnd, groundId != null ? groundId : 0L,
+                sport != null ? sport.toLowerCase() : "", org.springframework.data.domain.PageRequest.of(0, size + 1));
+        return nextPage(rows, size);
+    }
+
+    // Callers fetch one extra row to learn whether another page exists
+    private static KeysetPage<BookingSummary> nextPage(java.util.List<BookingSummary> rows, int size) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        java.util.List<BookingSummary> page = rows.subList(0, size);
+        BookingSummary last = page.get(size - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.startTime(), last.id()));
+    }
+
+    @Transactional
     public Booking joinBooking(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
@@ -57,17 +91,24 @@ public class BookingService {
             throw new RuntimeException("This booking is not public");
         }
 
-        if (booking.getJoinedPlayers() >= booking.getMaxPlayers()) {
+        // The database decides who gets the last spot; concurrent joins never overshoot maxPlayers
+        if (bookingRepository.claimPlayerSpot(bookingId) == 0) {
             throw new RuntimeException("Booking is full");
         }
 
-        booking.setJoinedPlayers(booking.getJoinedPlayers() + 1);
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        slotAvailabilityIndex.record(saved);
+        return saved;
+    }
+
+    public java.util.List<BookedSlot> getBookedSlots(Long groundId, java.time.LocalDate date) {
+        return slotAvailabilityIndex.getSlots(groundId, date);
     }
 
-    public java.util.List<Booking> getBookedSlots(Long groundId, java.time.LocalDate date) {
-        java.time.LocalDateTime startOfDay = date.atStartOfDay();
-        java.time.LocalDateTime endOfDay = date.atTime(java.time.LocalTime.MAX);
-        return bookingRepository.findByGroundIdAndStartTimeBetween(groundId, startOfDay, endOfDay);
+    public AvailabilityMatrix getAvailability(java.util.Collection<Long> groundIds, java.time.LocalDate from,
+            java.time.LocalDate to, int slotMinutes) {
+        return new AvailabilityMatrix(from, to, slotMinutes,
+                slotAvailabilityIndex.occupancy(groundIds, from, to, slotMinutes));
     }
 }
@@ -0,0 +1,11 @@
+package com.letsplay.booking;
+
+/**
+ * Status transition of a booking as pushed to clients over STOMP and server-sent events.
+ */
+public record BookingStatusEvent(Long bookingId, Booking.BookingStatus status, String reason) {
+
+    public boolean isTerminal() {
+        return status != Booking.BookingStatus.PENDING;
+    }
+}
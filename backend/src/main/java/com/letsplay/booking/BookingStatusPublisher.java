@@ -0,0 +1,192 @@
+package com.letsplay.booking;
+
+import com.letsplay.common.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes booking status transitions to clients so they no longer have to poll GET /bookings/{id}.
+ * Every transition goes to the STOMP destination {@code /topic/booking-status/{bookingId}} on the
+ * existing broker, and to any server-sent-event streams opened through GET /bookings/{id}/events.
+ *
+ * A transition is published on whichever node runs the workflow activity, while the client may be
+ * connected to any node, and both the STOMP broker and the event streams are per node. Transitions
+ * are therefore sent through Postgres NOTIFY on the {@value #CHANNEL} channel, and every node,
+ * including the sender, delivers what it hears to its own subscribers. Events sent while a node is
+ * reconnecting its listener are missed there; clients fall back to polling when a stream goes quiet.
+ */
+@Component
+public class BookingStatusPublisher {
+
+    static final String CHANNEL = "booking_status";
+
+    // Short, so a stream that missed its event ends soon and the client polls instead
+    private static final long SSE_TIMEOUT_MILLIS = 60 * 1000;
+    private static final int LISTEN_POLL_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BookingRepository bookingRepository;
+    private final DataSource dataSource;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService listener = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-status-listener");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookingStatusPublisher(SimpMessagingTemplate messagingTemplate, BookingRepository bookingRepository,
+            DataSource dataSource) {
+        this.messagingTemplate = messagingTemplate;
+        this.bookingRepository = bookingRepository;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void start() {
+        listener.execute(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        listener.shutdownNow();
+    }
+
+    public static String destinationFor(Long bookingId) {
+        return "/topic/booking-status/" + bookingId;
+    }
+
+    public void publish(Long bookingId, Booking.BookingStatus status, String reason) {
+        BookingStatusEvent event = new BookingStatusEvent(bookingId, status, reason);
+        TransactionCallbacks.afterCommit(() -> broadcast(event));
+    }
+
+    /**
+     * Opens an event stream for the booking. The current status is sent straight away, so a client
+     * that subscribes after the booking settled still learns the outcome; the stream closes after the
+     * first terminal status.
+     */
+    public Optional<SseEmitter> subscribe(Long bookingId) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        // Register before reading the current status so no transition can slip in between
+        emitters.computeIfAbsent(bookingId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unregister(bookingId, emitter));
+        emitter.onTimeout(() -> unregister(bookingId, emitter));
+        emitter.onError(e -> unregister(bookingId, emitter));
+
+        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        if (booking.isEmpty()) {
+            unregister(bookingId, emitter);
+            return Optional.empty();
+        }
+        send(emitter, new BookingStatusEvent(bookingId, booking.get().getStatus(), null));
+        return Optional.of(emitter);
+    }
+
+    // On a connection of its own: the transaction that published the event has already committed
+    private void broadcast(BookingStatusEvent event) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, encode(event));
+            statement.execute();
+        } catch (SQLException e) {
+            // Other nodes miss this one; at least reach the clients connected here
+            System.err.println("Booking status broadcast failed: " + e.getMessage());
+            deliver(event);
+        }
+    }
+
+    private void listen() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (!Thread.currentThread().isInterrupted()) {
+                    PGNotification[] received = notifications.getNotifications(LISTEN_POLL_MILLIS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            deliverQuietly(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Booking status listener failed, reconnecting: " + e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliverQuietly(String payload) {
+        try {
+            deliver(decode(payload));
+        } catch (RuntimeException e) {
+            System.err.println("Booking status delivery failed: " + e.getMessage());
+        }
+    }
+
+    // bookingId|status|reason, the reason last since it is free text
+    static String encode(BookingStatusEvent event) {
+        return event.bookingId() + "|" + event.status() + "|" + (event.reason() != null ? event.reason() : "");
+    }
+
+    static BookingStatusEvent decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        return new BookingStatusEvent(Long.valueOf(parts[0]), Booking.BookingStatus.valueOf(parts[1]),
+                parts[2].isEmpty() ? null : parts[2]);
+    }
+
+    private void deliver(BookingStatusEvent event) {
+        messagingTemplate.convertAndSend(destinationFor(event.bookingId()), event);
+        List<SseEmitter> subscribers = emitters.get(event.bookingId());
+        if (subscribers != null) {
+            for (SseEmitter emitter : subscribers) {
+                send(emitter, event);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, BookingStatusEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(event));
+            if (event.isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the stream is already closed
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unregister(Long bookingId, SseEmitter emitter) {
+        emitters.computeIfPresent(bookingId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
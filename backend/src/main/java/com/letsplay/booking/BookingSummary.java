@@ -0,0 +1,26 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.GroundSummary;
+import com.letsplay.user.UserSummary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for booking lists. Built straight from a JPQL constructor expression, so listing
+ * bookings is one statement no matter how many rows come back; loading Booking entities instead
+ * would pull each user, ground owner and their roles with extra selects.
+ */
+public record BookingSummary(Long id, UserSummary user, GroundSummary ground, LocalDateTime startTime,
+        LocalDateTime endTime, Booking.BookingStatus status, Boolean isPublic, Integer maxPlayers,
+        Integer joinedPlayers, Double totalAmount) {
+
+    // Column order of BookingRepository.SUMMARY
+    public BookingSummary(Long id, Long userId, String userName, Long groundId, String groundName,
+            String location, String sportType, String imageUrl, Double pricePerHour, LocalDateTime startTime,
+            LocalDateTime endTime, Booking.BookingStatus status, Boolean isPublic, Integer maxPlayers,
+            Integer joinedPlayers, Double totalAmount) {
+        this(id, new UserSummary(userId, userName),
+                new GroundSummary(groundId, groundName, location, sportType, imageUrl, pricePerHour),
+                startTime, endTime, status, isPublic, maxPlayers, joinedPlayers, totalAmount);
+    }
+}
@@ -0,0 +1,9 @@
+package com.letsplay.booking;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list; {@code nextCursor} is null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, KeysetCursor nextCursor) {
+}
@@ -0,0 +1,387 @@
+package com.letsplay.booking;
+
+import com.letsplay.common.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of active (PENDING or CONFIRMED) bookings, one schedule per ground per day.
+ * Each schedule keeps a minute-resolution occupancy bitset for fast "is this range free" checks
+ * plus the booked slots themselves for the booking calendar. Days are loaded lazily from the
+ * database on first access and kept in sync by the booking service and workflow activities on this
+ * node. Bookings written through another node never reach this index, so a loaded day is read
+ * again once it is older than {@code booking.slot-index.ttl-seconds}.
+ */
+@Component
+public class SlotAvailabilityIndex {
+
+    static final Set<Booking.BookingStatus> ACTIVE_STATUSES = EnumSet.of(Booking.BookingStatus.PENDING,
+            Booking.BookingStatus.CONFIRMED);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final BookingRepository bookingRepository;
+    private final long ttlNanos;
+    private final Map<DayKey, DaySchedule> schedules = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDate> lastSweep = new AtomicReference<>(LocalDate.MIN);
+
+    public SlotAvailabilityIndex(BookingRepository bookingRepository,
+            @Value("${booking.slot-index.ttl-seconds:5}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public List<BookedSlot> getSlots(Long groundId, LocalDate date) {
+        return schedule(groundId, date).slots();
+    }
+
+    /**
+     * Returns the first active booking that blocks the given booking's time range during validation.
+     * Claimed bookings always block; an unclaimed PENDING booking only blocks bookings created after
+     * it, so two overlapping requests never fail each other.
+     */
+    public Optional<BookedSlot> findConflict(Booking booking) {
+        return findConflict(booking, slot -> slot.isClaimed() || booking.getId() == null
+                || slot.id() < booking.getId());
+    }
+
+    /**
+     * Returns the first booking holding a firm claim on any part of the given booking's time range.
+     * Used by {@link SlotReservationEngine} while it holds the ground's lock.
+     */
+    public Optional<BookedSlot> findClaimedConflict(Booking booking) {
+        return findConflict(booking, BookedSlot::isClaimed);
+    }
+
+    /**
+     * Checks a batch of not-yet-saved bookings at once, returning the first active booking in the
+     * way of each clashing one, keyed by its start time. Days not yet in memory are filled from a
+     * single range query, so a season of weekly occurrences costs one round trip.
+     */
+    public Map<LocalDateTime, BookedSlot> findConflicts(List<Booking> bookings) {
+        LocalDate today = LocalDate.now();
+        sweepPastDays(today);
+        List<DaySchedule> unloaded = new ArrayList<>();
+        for (Booking booking : bookings) {
+            for (LocalDate day : daysSpanned(booking.getStartTime(), booking.getEndTime())) {
+                DaySchedule schedule = lookup(booking.getGround().getId(), day, today);
+                if (!schedule.isLoaded()) {
+                    unloaded.add(schedule);
+                }
+            }
+        }
+        loadAll(unloaded);
+
+        Map<LocalDateTime, BookedSlot> conflicts = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            findConflict(booking, slot -> true).ifPresent(slot -> conflicts.put(booking.getStartTime(), slot));
+        }
+        return conflicts;
+    }
+
+    private Optional<BookedSlot> findConflict(Booking booking, Predicate<BookedSlot> blocks) {
+        if (booking.getGround() == null || booking.getStartTime() == null || booking.getEndTime() == null) {
+            return Optional.empty();
+        }
+        Long groundId = booking.getGround().getId();
+        for (LocalDate day : daysSpanned(booking.getStartTime(), booking.getEndTime())) {
+            Optional<BookedSlot> conflict = schedule(groundId, day).findConflict(booking.getId(),
+                    booking.getStartTime(), booking.getEndTime(), blocks);
+            if (conflict.isPresent()) {
+                return conflict;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Records the current state of a booking. Inside a transaction the update is deferred until
+     * commit so a rolled-back write never leaks into the index.
+     */
+    public void record(Booking booking) {
+        if (booking.getId() == null || booking.getGround() == null) {
+            return;
+        }
+        BookedSlot slot = BookedSlot.of(booking);
+        TransactionCallbacks.afterCommit(() -> apply(slot));
+    }
+
+    private void apply(BookedSlot slot) {
+        boolean active = ACTIVE_STATUSES.contains(slot.status());
+        for (LocalDate day : daysSpanned(slot.startTime(), slot.endTime())) {
+            // Only days already in memory need updating; the rest are read fresh on first access
+            DaySchedule schedule = schedules.get(new DayKey(slot.groundId(), day));
+            if (schedule != null) {
+                if (active) {
+                    schedule.put(slot);
+                } else {
+                    schedule.remove(slot.id());
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a busy/free pattern per ground per day for the given range, one character per slot of
+     * {@code slotMinutes} ('1' when any part of the slot is booked). Days not yet in memory are
+     * filled from a single range query covering every requested ground.
+     */
+    public Map<Long, List<String>> occupancy(Collection<Long> groundIds, LocalDate from, LocalDate to,
+            int slotMinutes) {
+        LocalDate today = LocalDate.now();
+        sweepPastDays(today);
+
+        Map<Long, List<DaySchedule>> grid = new LinkedHashMap<>();
+        List<DaySchedule> unloaded = new ArrayList<>();
+        for (Long groundId : groundIds) {
+            List<DaySchedule> days = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                DaySchedule schedule = lookup(groundId, day, today);
+                if (!schedule.isLoaded()) {
+                    unloaded.add(schedule);
+                }
+                days.add(schedule);
+            }
+            grid.put(groundId, days);
+        }
+        loadAll(unloaded);
+
+        Map<Long, List<String>> result = new LinkedHashMap<>();
+        grid.forEach((groundId, days) -> result.put(groundId,
+                days.stream().map(schedule -> schedule.occupancy(slotMinutes)).toList()));
+        return result;
+    }
+
+    private void loadAll(List<DaySchedule> unloaded) {
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        Set<Long> groundIds = new HashSet<>();
+        LocalDate first = unloaded.get(0).date;
+        LocalDate last = first;
+        for (DaySchedule schedule : unloaded) {
+            groundIds.add(schedule.groundId);
+            first = schedule.date.isBefore(first) ? schedule.date : first;
+            last = schedule.date.isAfter(last) ? schedule.date : last;
+        }
+
+        Map<DayKey, List<Booking>> bookingsByDay = new HashMap<>();
+        for (Booking booking : bookingRepository.findByGroundIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                groundIds, last.plusDays(1).atStartOfDay(), first.atStartOfDay(), ACTIVE_STATUSES)) {
+            for (LocalDate day : daysSpanned(booking.getStartTime(), booking.getEndTime())) {
+                bookingsByDay.computeIfAbsent(new DayKey(booking.getGround().getId(), day), key -> new ArrayList<>())
+                        .add(booking);
+            }
+        }
+        for (DaySchedule schedule : unloaded) {
+            schedule.load(bookingsByDay.getOrDefault(new DayKey(schedule.groundId, schedule.date), List.of()));
+        }
+    }
+
+    private DaySchedule schedule(Long groundId, LocalDate date) {
+        LocalDate today = LocalDate.now();
+        sweepPastDays(today);
+        DaySchedule schedule = lookup(groundId, date, today);
+        schedule.ensureLoaded(bookingRepository);
+        return schedule;
+    }
+
+    private DaySchedule lookup(Long groundId, LocalDate date, LocalDate today) {
+        if (date.isBefore(today)) {
+            // Past days are looked at rarely and never change, so don't keep them around
+            return new DaySchedule(groundId, date);
+        }
+        DayKey key = new DayKey(groundId, date);
+        DaySchedule schedule = schedules.computeIfAbsent(key, k -> new DaySchedule(k.groundId(), k.date()));
+        if (!schedule.isExpired(ttlNanos)) {
+            return schedule;
+        }
+        // Swap in an empty schedule to be read again; writes committed from here on land in the new
+        // one, earlier ones are already in the database it loads from
+        DaySchedule fresh = new DaySchedule(groundId, date);
+        if (schedules.replace(key, schedule, fresh)) {
+            return fresh;
+        }
+        return schedules.computeIfAbsent(key, k -> new DaySchedule(k.groundId(), k.date()));
+    }
+
+    private void sweepPastDays(LocalDate today) {
+        LocalDate previous = lastSweep.get();
+        if (previous.isBefore(today) && lastSweep.compareAndSet(previous, today)) {
+            schedules.keySet().removeIf(key -> key.date().isBefore(today));
+        }
+    }
+
+    static List<LocalDate> daysSpanned(LocalDateTime start, LocalDateTime end) {
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    private record DayKey(Long groundId, LocalDate date) {
+    }
+
+    /**
+     * Schedule of a single ground on a single day. All access is synchronized on the instance. The
+     * schedule is published into the index before it is loaded, so a writer may reach it first: its
+     * update is kept over the (possibly older) loaded row, and a removal is remembered so the load
+     * cannot bring the booking back.
+     */
+    static final class DaySchedule {
+
+        private final Long groundId;
+        private final LocalDate date;
+        private final long[] occupied = new long[(MINUTES_PER_DAY + 63) / 64];
+        private final Map<Long, BookedSlot> slots = new HashMap<>();
+        private Set<Long> removedBeforeLoad = new HashSet<>();
+        private boolean loaded;
+        private long loadedAt;
+
+        DaySchedule(Long groundId, LocalDate date) {
+            this.groundId = groundId;
+            this.date = date;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized boolean isExpired(long ttlNanos) {
+            return loaded && System.nanoTime() - loadedAt >= ttlNanos;
+        }
+
+        synchronized void ensureLoaded(BookingRepository bookingRepository) {
+            if (loaded) {
+                return;
+            }
+            LocalDateTime dayStart = date.atStartOfDay();
+            load(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                    groundId, dayStart.plusDays(1), dayStart, ACTIVE_STATUSES));
+        }
+
+        synchronized void load(List<Booking> bookings) {
+            if (loaded) {
+                return;
+            }
+            for (Booking booking : bookings) {
+                if (!removedBeforeLoad.contains(booking.getId())) {
+                    slots.putIfAbsent(booking.getId(), BookedSlot.of(booking));
+                }
+            }
+            removedBeforeLoad = null;
+            rebuildOccupancy();
+            loaded = true;
+            loadedAt = System.nanoTime();
+        }
+
+        synchronized List<BookedSlot> slots() {
+            List<BookedSlot> result = new ArrayList<>(slots.values());
+            result.sort(Comparator.comparing(BookedSlot::startTime));
+            return result;
+        }
+
+        synchronized Optional<BookedSlot> findConflict(Long bookingId, LocalDateTime start, LocalDateTime end,
+                Predicate<BookedSlot> blocks) {
+            if (isFree(start, end)) {
+                return Optional.empty();
+            }
+            return slots.values().stream()
+                    .filter(slot -> !slot.id().equals(bookingId))
+                    .filter(slot -> slot.overlaps(start, end))
+                    .filter(blocks)
+                    .findFirst();
+        }
+
+        synchronized void put(BookedSlot slot) {
+            BookedSlot previous = slots.put(slot.id(), slot);
+            if (previous == null || !previous.startTime().equals(slot.startTime())
+                    || !previous.endTime().equals(slot.endTime())) {
+                rebuildOccupancy();
+            }
+        }
+
+        synchronized void remove(Long bookingId) {
+            if (!loaded) {
+                removedBeforeLoad.add(bookingId);
+            }
+            if (slots.remove(bookingId) != null) {
+                rebuildOccupancy();
+            }
+        }
+
+        synchronized String occupancy(int slotMinutes) {
+            StringBuilder pattern = new StringBuilder(MINUTES_PER_DAY / slotMinutes);
+            for (int from = 0; from < MINUTES_PER_DAY; from += slotMinutes) {
+                pattern.append(isFree(from, from + slotMinutes) ? '0' : '1');
+            }
+            return pattern.toString();
+        }
+
+        private boolean isFree(LocalDateTime start, LocalDateTime end) {
+            return isFree(startMinute(start), endMinute(end));
+        }
+
+        private boolean isFree(int from, int to) {
+            for (int minute = from; minute < to; minute++) {
+                if ((occupied[minute >>> 6] & (1L << minute)) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rebuildOccupancy() {
+            // Bookings can overlap (legacy rows), so clearing one booking's bits in place could free
+            // minutes still held by another. A day has a handful of slots; recomputing is cheap.
+            Arrays.fill(occupied, 0L);
+            for (BookedSlot slot : slots.values()) {
+                int to = endMinute(slot.endTime());
+                for (int minute = startMinute(slot.startTime()); minute < to; minute++) {
+                    occupied[minute >>> 6] |= 1L << minute;
+                }
+            }
+        }
+
+        private int startMinute(LocalDateTime time) {
+            if (time.toLocalDate().isBefore(date)) {
+                return 0;
+            }
+            return Math.min(MINUTES_PER_DAY, time.getHour() * 60 + time.getMinute());
+        }
+
+        private int endMinute(LocalDateTime time) {
+            if (time.toLocalDate().isAfter(date)) {
+                return MINUTES_PER_DAY;
+            }
+            if (time.toLocalDate().isBefore(date)) {
+                return 0;
+            }
+            // Round partial minutes up so a booking always covers its last started minute
+            long seconds = Duration.between(date.atStartOfDay(), time).toSeconds();
+            return (int) Math.min(MINUTES_PER_DAY, (seconds + 59) / 60);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.letsplay.booking;
+
+import java.time.LocalDateTime;
+
+// A PENDING booking's claim on its slot and when it lapses
+public record SlotHold(Long bookingId, LocalDateTime expiresAt) {
+}
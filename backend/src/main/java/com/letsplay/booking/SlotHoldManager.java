@@ -0,0 +1,133 @@
+package com.letsplay.booking;
+
+import com.letsplay.common.HashedTimerWheel;
+import com.letsplay.common.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every PENDING booking a deadline. A new booking holds its slot until the workflow confirms
+ * it; if that has not happened when the hold lapses (abandoned checkout, dead workflow) the booking
+ * is failed and the slot released. Deadlines are stored on the booking and tracked in memory by a
+ * {@link HashedTimerWheel}, so checking for expiry does not touch the database; holds pending when
+ * the application starts are re-armed from the bookings table.
+ */
+@Component
+public class SlotHoldManager {
+
+    static final String EXPIRED_REASON = "Slot hold expired before the booking was confirmed";
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final BookingStatusPublisher bookingStatusPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlSeconds;
+    private final long tickMillis;
+    private final HashedTimerWheel wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slot-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SlotHoldManager(BookingRepository bookingRepository, SlotAvailabilityIndex slotAvailabilityIndex,
+            BookingStatusPublisher bookingStatusPublisher, PlatformTransactionManager transactionManager,
+            @Value("${booking.hold.ttl-seconds:600}") long ttlSeconds,
+            @Value("${booking.hold.tick-ms:1000}") long tickMillis,
+            @Value("${booking.hold.wheel-size:512}") int wheelSize) {
+        this.bookingRepository = bookingRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.bookingStatusPublisher = bookingStatusPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlSeconds = ttlSeconds;
+        this.tickMillis = tickMillis;
+        this.wheel = new HashedTimerWheel(wheelSize, tickMillis, System.currentTimeMillis());
+    }
+
+    public LocalDateTime newDeadline() {
+        return LocalDateTime.now().plusSeconds(ttlSeconds);
+    }
+
+    /**
+     * Starts the countdown for a booking saved with {@code holdExpiresAt} set. Inside a transaction
+     * the timer is armed on commit.
+     */
+    public void track(Long bookingId, LocalDateTime expiresAt) {
+        TransactionCallbacks.afterCommit(() -> wheel.schedule(bookingId, toMillis(expiresAt)));
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.execute(this::rearm);
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void rearm() {
+        try {
+            // Rows from before holds existed get a fresh hold rather than expiring all at once
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.assignMissingHolds(newDeadline()));
+            List<SlotHold> holds = bookingRepository.findPendingHolds();
+            for (SlotHold hold : holds) {
+                wheel.schedule(hold.bookingId(), toMillis(hold.expiresAt()));
+            }
+            System.out.println("Re-armed " + holds.size() + " slot holds");
+        } catch (Exception e) {
+            System.err.println("Failed to re-arm slot holds: " + e.getMessage());
+        }
+    }
+
+    void tick() {
+        try {
+            long[] due = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < due.length; from += EXPIRY_BATCH_SIZE) {
+                List<Long> batch = new ArrayList<>();
+                for (int i = from; i < Math.min(due.length, from + EXPIRY_BATCH_SIZE); i++) {
+                    batch.add(due[i]);
+                }
+                expire(batch);
+            }
+        } catch (Exception e) {
+            System.err.println("Slot hold expiry failed: " + e.getMessage());
+        }
+    }
+
+    private void expire(List<Long> bookingIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Confirmed, failed or re-held bookings drop out here; rows are locked so a concurrent
+            // confirmation waits and then finds the booking no longer pending
+            List<Long> expired = bookingRepository.lockExpiredHolds(bookingIds, LocalDateTime.now());
+            if (expired.isEmpty()) {
+                return;
+            }
+            bookingRepository.updateStatus(expired, Booking.BookingStatus.FAILED);
+            for (Booking booking : bookingRepository.findAllById(expired)) {
+                slotAvailabilityIndex.record(booking);
+                bookingStatusPublisher.publish(booking.getId(), Booking.BookingStatus.FAILED, EXPIRED_REASON);
+            }
+            System.out.println("Expired " + expired.size() + " slot holds");
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
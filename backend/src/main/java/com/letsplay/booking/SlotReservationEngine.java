@@ -0,0 +1,118 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.GroundRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns a PENDING booking into a firm claim on its ground and time range.
+ *
+ * Claims for the same ground are serialized on one of a fixed set of lock stripes, so competing
+ * requests for a hot slot are decided one at a time while unrelated grounds proceed in parallel.
+ * The claim is committed before the stripe is released, which keeps the in-memory index and the
+ * database in step for the next claimant. Conflicts already in the {@link SlotAvailabilityIndex}
+ * are reported immediately rather than waited out.
+ *
+ * The stripes and the index only cover this node. The claim itself runs under a row lock on the
+ * ground and re-checks for overlapping claims in the database, so two nodes can never both claim
+ * the same slot; a conflict found that way is added to the local index for the next claimant.
+ */
+@Component
+public class SlotReservationEngine {
+
+    public enum Outcome {
+        RESERVED,
+        CONFLICT,
+        BUSY,
+        // Failed or confirmed meanwhile, e.g. its slot hold expired
+        NOT_PENDING
+    }
+
+    public record Result(Outcome outcome, Long conflictingBookingId) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final GroundRepository groundRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMillis;
+
+    public SlotReservationEngine(BookingRepository bookingRepository, GroundRepository groundRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex, PlatformTransactionManager transactionManager,
+            @Value("${booking.reservation.lock-stripes:64}") int lockStripes,
+            @Value("${booking.reservation.lock-timeout-ms:250}") long lockTimeoutMillis) {
+        this.bookingRepository = bookingRepository;
+        this.groundRepository = groundRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lockTimeoutMillis = lockTimeoutMillis;
+
+        // Round up to a power of two so a stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Result reserve(Booking booking) {
+        if (Boolean.TRUE.equals(booking.getSlotReserved())) {
+            // Activity retry after a successful claim
+            return new Result(Outcome.RESERVED, null);
+        }
+
+        ReentrantLock lock = stripeFor(booking.getGround().getId());
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return new Result(Outcome.BUSY, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(Outcome.BUSY, null);
+        }
+
+        try {
+            Optional<BookedSlot> conflict = slotAvailabilityIndex.findClaimedConflict(booking);
+            if (conflict.isPresent()) {
+                return new Result(Outcome.CONFLICT, conflict.get().id());
+            }
+            Result result = transactionTemplate.execute(status -> {
+                groundRepository.lockById(booking.getGround().getId());
+                List<Long> claimedElsewhere = bookingRepository.findClaimedOverlaps(booking.getId(),
+                        booking.getGround().getId(), booking.getStartTime(), booking.getEndTime());
+                if (!claimedElsewhere.isEmpty()) {
+                    return new Result(Outcome.CONFLICT, claimedElsewhere.get(0));
+                }
+                if (bookingRepository.claimSlot(booking.getId()) == 0) {
+                    return new Result(Outcome.NOT_PENDING, null);
+                }
+                booking.setSlotReserved(true);
+                slotAvailabilityIndex.record(booking);
+                return new Result(Outcome.RESERVED, null);
+            });
+            if (result.outcome() == Outcome.CONFLICT) {
+                // Claimed through another node; this node's index has not seen it yet
+                bookingRepository.findById(result.conflictingBookingId()).ifPresent(slotAvailabilityIndex::record);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(Long groundId) {
+        int hash = Long.hashCode(groundId);
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,43 @@
+package com.letsplay.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU map: once {@code maxEntries} is reached, the least recently used entry is
+ * dropped. Meant for caches in front of remote calls where a plain lock is cheaper than the call.
+ */
+public final class BoundedCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public BoundedCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        return entries.computeIfAbsent(key, loader);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -2,23 +2,39 @@ package com.letsplay.common;
 
 import com.letsplay.ground.Ground;
 import com.letsplay.ground.GroundRepository;
+import com.letsplay.security.PasswordHasher;
 import com.letsplay.user.User;
 import com.letsplay.user.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 @Component
 public class DataSeeder implements CommandLineRunner {
 
+    // Latitude and longitude of the default grounds, by name
+    private static final Map<String, double[]> SEEDED_COORDINATES = Map.of(
+            "Play Arena - Sarjapur", new double[] { 12.9105, 77.6858 },
+            "Active Sports Hub", new double[] { 12.9719, 77.6412 },
+            "Turf Park", new double[] { 12.9352, 77.6245 },
+            "Smash Bounce", new double[] { 12.9116, 77.6389 },
+            "Grand Slam Tennis", new double[] { 12.9698, 77.7500 },
+            "Dunk Yard", new double[] { 12.9063, 77.5857 },
+            "Blue Waves Centre", new double[] { 12.8880, 77.5970 },
+            "Shuttle Zone Pro", new double[] { 12.9569, 77.7011 });
+
     private final UserRepository userRepository;
     private final GroundRepository groundRepository;
+    private final PasswordHasher passwordHasher;
 
-    public DataSeeder(UserRepository userRepository, GroundRepository groundRepository) {
+    public DataSeeder(UserRepository userRepository, GroundRepository groundRepository,
+            PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.groundRepository = groundRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
@@ -28,28 +44,28 @@ public class DataSeeder implements CommandLineRunner {
             User user = new User();
             user.setName("letsplay User");
             user.setEmail("user@letsplay.com");
-            user.setPassword("password");
+            user.setPassword(passwordHasher.encode("password"));
             user.setRoles(Collections.singleton(User.Role.USER));
             userRepository.save(user);
 
             User owner = new User();
             owner.setName("Ground Owner");
             owner.setEmail("owner@letsplay.com");
-            owner.setPassword("password");
+            owner.setPassword(passwordHasher.encode("password"));
             owner.setRoles(Collections.singleton(User.Role.GROUND_OWNER));
             userRepository.save(owner);
 
             User coach = new User();
             coach.setName("Pro Coach");
             coach.setEmail("coach@letsplay.com");
-            coach.setPassword("password");
+            coach.setPassword(passwordHasher.encode("password"));
             coach.setRoles(Collections.singleton(User.Role.COACH));
             userRepository.save(coach);
 
             User admin = new User();
             admin.setName("System Admin");
             admin.setEmail("admin@letsplay.com");
-            admin.setPassword("admin123");
+            admin.setPassword(passwordHasher.encode("admin123"));
             admin.setRoles(Collections.singleton(User.Role.ADMIN));
             userRepository.save(admin);
 
@@ -80,6 +96,14 @@ public class DataSeeder implements CommandLineRunner {
                     "https://images.unsplash.com/photo-1613918108466-292b78a8ef95", owner);
 
             System.out.println("Seeded Default Grounds");
+        } else {
+            // Default grounds seeded before grounds had coordinates
+            for (Ground ground : groundRepository.findAll()) {
+                if (ground.getLatitude() == null && SEEDED_COORDINATES.containsKey(ground.getName())) {
+                    setCoordinates(ground);
+                    groundRepository.save(ground);
+                }
+            }
         }
     }
 
@@ -91,6 +115,15 @@ public class DataSeeder implements CommandLineRunner {
         ground.setPricePerHour(price);
         ground.setImageUrl(img);
         ground.setOwner(owner);
+        setCoordinates(ground);
         groundRepository.save(ground);
     }
+
+    private void setCoordinates(Ground ground) {
+        double[] coordinates = SEEDED_COORDINATES.get(ground.getName());
+        if (coordinates != null) {
+            ground.setLatitude(coordinates[0]);
+            ground.setLongitude(coordinates[1]);
+        }
+    }
 }
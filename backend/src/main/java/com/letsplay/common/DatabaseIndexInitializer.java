@@ -0,0 +1,39 @@
+package com.letsplay.common;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the PostgreSQL indexes that JPA annotations cannot describe (partial indexes, expression
+ * indexes). Runs after Hibernate has updated the schema; every statement is idempotent.
+ */
+@Component
+public class DatabaseIndexInitializer implements CommandLineRunner {
+
+    private static final List<String> STATEMENTS = List.of(
+            // Open public games feed, see BookingRepository.findOpenPublicGames
+            "CREATE INDEX IF NOT EXISTS idx_bookings_open_public ON bookings (start_time, id) "
+                    + "WHERE is_public = true AND status = 'CONFIRMED' AND joined_players < max_players",
+            // Booking backlog, see BookingBacklogGauge; stays as small as the backlog itself
+            "CREATE INDEX IF NOT EXISTS idx_bookings_pending ON bookings (id) WHERE status = 'PENDING'");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                System.err.println("Failed to create index: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.letsplay.common;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timer wheel for long ids. Time is cut into ticks and each tick hashes onto one of a fixed
+ * number of buckets, so scheduling is O(1) and advancing only looks at the buckets of elapsed ticks.
+ * Entries further away than one turn of the wheel stay in their bucket until their tick comes round.
+ * Buckets are parallel primitive arrays (id, deadline tick): 16 bytes per pending timer, no objects.
+ *
+ * There is no cancel; callers re-check state when an id fires, which is cheaper than tracking
+ * every timer for removal when most of them end early.
+ */
+public final class HashedTimerWheel {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final long tickMillis;
+    private final int mask;
+    private final long[][] ids;
+    private final long[][] deadlines;
+    private final int[] sizes;
+    private long currentTick;
+    private int pending;
+
+    public HashedTimerWheel(int wheelSize, long tickMillis, long nowMillis) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.ids = new long[size][];
+        this.deadlines = new long[size][];
+        this.sizes = new int[size];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public synchronized void schedule(long id, long deadlineMillis) {
+        // Round up so a timer never fires early; overdue ones fire on the next tick
+        long tick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        int bucket = (int) (tick & mask);
+        int size = sizes[bucket];
+        if (ids[bucket] == null) {
+            ids[bucket] = new long[INITIAL_BUCKET_CAPACITY];
+            deadlines[bucket] = new long[INITIAL_BUCKET_CAPACITY];
+        } else if (size == ids[bucket].length) {
+            ids[bucket] = Arrays.copyOf(ids[bucket], size * 2);
+            deadlines[bucket] = Arrays.copyOf(deadlines[bucket], size * 2);
+        }
+        ids[bucket][size] = id;
+        deadlines[bucket][size] = tick;
+        sizes[bucket] = size + 1;
+        pending++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the ids whose deadline has passed.
+     */
+    public synchronized long[] advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return new long[0];
+        }
+        // After a full turn every bucket has been visited, so a long pause costs one sweep at most
+        long steps = Math.min(targetTick - currentTick, (long) mask + 1);
+        long[] expired = new long[0];
+        int count = 0;
+        for (long tick = targetTick - steps + 1; tick <= targetTick; tick++) {
+            int bucket = (int) (tick & mask);
+            long[] bucketIds = ids[bucket];
+            long[] bucketDeadlines = deadlines[bucket];
+            int size = sizes[bucket];
+            for (int i = 0; i < size; ) {
+                if (bucketDeadlines[i] <= targetTick) {
+                    if (count == expired.length) {
+                        expired = Arrays.copyOf(expired, Math.max(16, count * 2));
+                    }
+                    expired[count++] = bucketIds[i];
+                    // Swap-remove: order within a bucket does not matter
+                    size--;
+                    bucketIds[i] = bucketIds[size];
+                    bucketDeadlines[i] = bucketDeadlines[size];
+                } else {
+                    i++;
+                }
+            }
+            sizes[bucket] = size;
+            if (size == 0 && bucketIds != null && bucketIds.length > INITIAL_BUCKET_CAPACITY) {
+                // Let a bucket that spiked give its memory back
+                ids[bucket] = null;
+                deadlines[bucket] = null;
+            }
+        }
+        currentTick = targetTick;
+        pending -= count;
+        return Arrays.copyOf(expired, count);
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+}
@@ -1,64 +1,44 @@
 package com.letsplay.common;
 
-import com.letsplay.workflow.BookingActivitiesImpl;
-import com.letsplay.workflow.BookingWorkflowImpl;
+import io.temporal.client.ActivityCompletionClient;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
-import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import io.temporal.worker.WorkerFactoryOptions;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import jakarta.annotation.PostConstruct;
 
+// One gRPC connection (the service stubs) is shared by the client, the completion client and the worker
 @Configuration
+@EnableConfigurationProperties(TemporalProperties.class)
 public class TemporalConfig {
 
-    @Value("${temporal.target}")
-    private String temporalTarget;
-
-    private final BookingActivitiesImpl bookingActivities;
-
-    public TemporalConfig(BookingActivitiesImpl bookingActivities) {
-        this.bookingActivities = bookingActivities;
-    }
-
     @Bean
-    public WorkflowServiceStubs workflowServiceStubs() {
+    public WorkflowServiceStubs workflowServiceStubs(TemporalProperties properties) {
         return WorkflowServiceStubs.newServiceStubs(
-                WorkflowServiceStubsOptions.newBuilder().setTarget(temporalTarget).build());
+                WorkflowServiceStubsOptions.newBuilder().setTarget(properties.target()).build());
     }
 
     @Bean
-    public WorkflowClient workflowClient(WorkflowServiceStubs serviceStubs) {
-        return WorkflowClient.newInstance(serviceStubs);
+    public WorkflowClient workflowClient(WorkflowServiceStubs serviceStubs, TemporalProperties properties) {
+        return WorkflowClient.newInstance(serviceStubs,
+                WorkflowClientOptions.newBuilder().setNamespace(properties.namespace()).build());
     }
 
     @Bean
-    public WorkerFactory workerFactory(WorkflowClient workflowClient) {
-        return WorkerFactory.newInstance(workflowClient);
+    public ActivityCompletionClient activityCompletionClient(WorkflowClient workflowClient) {
+        return workflowClient.newActivityCompletionClient();
     }
 
-    @PostConstruct
-    public void startWorker() {
-        // In a real app, this might be separated or conditional
-        new Thread(() -> {
-            try {
-                // Wait for Spring Context to be ready
-                WorkflowServiceStubs serviceStubs = workflowServiceStubs();
-                WorkflowClient client = workflowClient(serviceStubs);
-                WorkerFactory factory = workerFactory(client);
-
-                Worker worker = factory.newWorker("BookingTaskQueue");
-                worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class);
-                worker.registerActivitiesImplementations(bookingActivities);
-
-                factory.start();
-                System.out.println("Temporal Worker started...");
-            } catch (Exception e) {
-                System.err.println("Failed to start Temporal Worker: " + e.getMessage());
-            }
-        }).start();
+    @Bean
+    public WorkerFactory workerFactory(WorkflowClient workflowClient, TemporalProperties properties) {
+        TemporalProperties.Worker worker = properties.worker();
+        return WorkerFactory.newInstance(workflowClient, WorkerFactoryOptions.newBuilder()
+                .setWorkflowCacheSize(worker.workflowCacheSize())
+                .setMaxWorkflowThreadCount(worker.maxWorkflowThreads())
+                .build());
     }
 }
@@ -0,0 +1,32 @@
+package com.letsplay.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection and worker settings under {@code temporal.*}. Worker defaults match the Temporal SDK's
+ * own, so an empty configuration behaves as before.
+ */
+@ConfigurationProperties(prefix = "temporal")
+public record TemporalProperties(
+        @DefaultValue("127.0.0.1:7233") String target,
+        @DefaultValue("default") String namespace,
+        @DefaultValue Worker worker) {
+
+    public record Worker(
+            // Set to false for API-only instances that start workflows but do not run them
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("200") int maxConcurrentActivityExecutions,
+            @DefaultValue("200") int maxConcurrentLocalActivityExecutions,
+            @DefaultValue("200") int maxConcurrentWorkflowTaskExecutions,
+            @DefaultValue("5") int activityPollers,
+            @DefaultValue("5") int workflowPollers,
+            // Sticky workflow cache; each cached workflow keeps a thread, so keep it <= max-workflow-threads
+            @DefaultValue("600") int workflowCacheSize,
+            @DefaultValue("600") int maxWorkflowThreads,
+            // How long shutdown waits for in-flight tasks before interrupting them
+            @DefaultValue("30s") Duration shutdownTimeout) {
+    }
+}
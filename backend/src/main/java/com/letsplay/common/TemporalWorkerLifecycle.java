@@ -0,0 +1,95 @@
+package com.letsplay.common;
+
+import com.letsplay.workflow.BookingActivitiesImpl;
+import com.letsplay.workflow.BookingSeriesActivitiesImpl;
+import com.letsplay.workflow.BookingSeriesWorkflowImpl;
+import com.letsplay.workflow.BookingWorkflow;
+import com.letsplay.workflow.BookingWorkflowImpl;
+import com.letsplay.workflow.GroundReservationActivitiesImpl;
+import com.letsplay.workflow.GroundReservationWorkflowImpl;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the booking worker as part of the application lifecycle. It starts once the context is
+ * up and, on shutdown, stops polling and lets in-flight workflow and activity tasks finish (up to
+ * {@code temporal.worker.shutdown-timeout}) before the database and other beans go away.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.orchestration", havingValue = "temporal", matchIfMissing = true)
+public class TemporalWorkerLifecycle implements SmartLifecycle {
+
+    private final WorkerFactory workerFactory;
+    private final TemporalProperties.Worker settings;
+    private final BookingActivitiesImpl bookingActivities;
+    private final BookingSeriesActivitiesImpl bookingSeriesActivities;
+    private final GroundReservationActivitiesImpl groundReservationActivities;
+    private volatile boolean running;
+
+    public TemporalWorkerLifecycle(WorkerFactory workerFactory, TemporalProperties properties,
+            BookingActivitiesImpl bookingActivities, BookingSeriesActivitiesImpl bookingSeriesActivities,
+            GroundReservationActivitiesImpl groundReservationActivities) {
+        this.workerFactory = workerFactory;
+        this.settings = properties.worker();
+        this.bookingActivities = bookingActivities;
+        this.bookingSeriesActivities = bookingSeriesActivities;
+        this.groundReservationActivities = groundReservationActivities;
+    }
+
+    @Override
+    public void start() {
+        if (!settings.enabled()) {
+            System.out.println("Temporal worker disabled");
+            return;
+        }
+        Worker worker = workerFactory.newWorker(BookingWorkflow.TASK_QUEUE, WorkerOptions.newBuilder()
+                .setMaxConcurrentActivityExecutionSize(settings.maxConcurrentActivityExecutions())
+                .setMaxConcurrentLocalActivityExecutionSize(settings.maxConcurrentLocalActivityExecutions())
+                .setMaxConcurrentWorkflowTaskExecutionSize(settings.maxConcurrentWorkflowTaskExecutions())
+                .setMaxConcurrentActivityTaskPollers(settings.activityPollers())
+                .setMaxConcurrentWorkflowTaskPollers(settings.workflowPollers())
+                .build());
+        worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class, BookingSeriesWorkflowImpl.class,
+                GroundReservationWorkflowImpl.class);
+        worker.registerActivitiesImplementations(bookingActivities, bookingSeriesActivities,
+                groundReservationActivities);
+        try {
+            workerFactory.start();
+            running = true;
+            System.out.println("Temporal Worker started...");
+        } catch (Exception e) {
+            // Keep serving the API; workflows queue up in Temporal until a worker is available
+            System.err.println("Failed to start Temporal Worker: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        workerFactory.shutdown();
+        try {
+            workerFactory.awaitTermination(settings.shutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            System.err.println("Interrupted while draining Temporal Worker: " + e.getMessage());
+        }
+        if (!workerFactory.isTerminated()) {
+            System.err.println("Temporal Worker did not drain within " + settings.shutdownTimeout());
+            workerFactory.shutdownNow();
+        }
+        running = false;
+        System.out.println("Temporal Worker stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
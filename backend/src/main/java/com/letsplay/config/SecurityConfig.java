@@ -1,5 +1,6 @@
 package com.letsplay.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,12 +16,17 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties({ com.letsplay.security.JwtProperties.class,
+        com.letsplay.security.RateLimitProperties.class })
 public class SecurityConfig {
 
     private final com.letsplay.security.JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final com.letsplay.security.RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(com.letsplay.security.JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(com.letsplay.security.JwtAuthenticationFilter jwtAuthenticationFilter,
+            com.letsplay.security.RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -38,7 +44,9 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(
                         org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter,
-                        org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
+                        org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter, so signed-in clients are limited by user id rather than address
+                .addFilterAfter(rateLimitFilter, com.letsplay.security.JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -51,6 +59,7 @@ public class SecurityConfig {
         config.setAllowedOriginPatterns(Arrays.asList("*"));
         config.setAllowedHeaders(Arrays.asList("*"));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD"));
+        config.setExposedHeaders(Arrays.asList(com.letsplay.booking.KeysetCursor.HEADER, "Retry-After"));
         source.registerCorsConfiguration("/**", config);
         return source;
     }
@@ -0,0 +1,163 @@
+package com.letsplay.ground;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Grounds bucketed into a fixed grid of latitude/longitude cells, for "near me" searches.
+ *
+ * A search walks rings of cells outwards from the query point and stops as soon as no cell further
+ * out can hold anything within the radius, or closer than the k results it already has, so it
+ * touches a few dozen cells however many grounds there are. Immutable; one is built per catalog
+ * snapshot, so it always matches the grounds being served.
+ */
+final class GeoGridIndex {
+
+    // About 5.5 km north-south; a city fits in a few dozen cells
+    static final double CELL_DEGREES = 0.05;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+    private static final Comparator<NearbyGround> NEAREST_FIRST = Comparator
+            .comparingDouble(NearbyGround::distanceKm)
+            .thenComparing(nearby -> nearby.ground().getId());
+
+    private final Map<Long, Ground[]> cells;
+    private final int size;
+
+    private GeoGridIndex(Map<Long, Ground[]> cells, int size) {
+        this.cells = cells;
+        this.size = size;
+    }
+
+    // Grounds without coordinates are skipped
+    static GeoGridIndex build(Collection<Ground> grounds) {
+        Map<Long, List<Ground>> buckets = new HashMap<>();
+        int size = 0;
+        for (Ground ground : grounds) {
+            if (ground.getLatitude() == null || ground.getLongitude() == null) {
+                continue;
+            }
+            buckets.computeIfAbsent(cell(row(ground.getLatitude()), column(ground.getLongitude())),
+                    key -> new ArrayList<>()).add(ground);
+            size++;
+        }
+        Map<Long, Ground[]> cells = new HashMap<>();
+        buckets.forEach((key, bucket) -> cells.put(key, bucket.toArray(new Ground[0])));
+        return new GeoGridIndex(Map.copyOf(cells), size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Up to {@code limit} grounds within {@code radiusKm} of the point, nearest first. */
+    List<NearbyGround> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (size == 0 || limit <= 0) {
+            return List.of();
+        }
+        int row = row(latitude);
+        int column = column(longitude);
+
+        // Cells that can hold anything within the radius: the bounding box of the search circle
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        double maxLatitude = Math.min(90, Math.abs(latitude) + radiusDegrees);
+        int rowReach = (int) Math.ceil(radiusDegrees / CELL_DEGREES) + 1;
+        int columnReach = COLUMNS / 2;
+        if (maxLatitude < 90) {
+            double longitudeDegrees = Math.toDegrees(Math.asin(Math.min(1,
+                    Math.sin(Math.toRadians(radiusDegrees)) / Math.cos(Math.toRadians(latitude)))));
+            columnReach = Math.min(columnReach, (int) Math.ceil(longitudeDegrees / CELL_DEGREES) + 1);
+        }
+        double cosMaxLatitude = Math.cos(Math.toRadians(maxLatitude));
+
+        // Farthest result kept on top, so it is the one dropped when a closer ground turns up
+        PriorityQueue<NearbyGround> best = new PriorityQueue<>(NEAREST_FIRST.reversed());
+        int maxRing = Math.max(rowReach, columnReach);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dRow = -Math.min(ring, rowReach); dRow <= Math.min(ring, rowReach); dRow++) {
+                if (Math.abs(dRow) == ring) {
+                    for (int dColumn = -Math.min(ring, columnReach); dColumn <= Math.min(ring, columnReach); dColumn++) {
+                        collect(row + dRow, column + dColumn, dColumn, latitude, longitude, radiusKm, limit, best);
+                    }
+                } else if (ring <= columnReach) {
+                    collect(row + dRow, column - ring, -ring, latitude, longitude, radiusKm, limit, best);
+                    collect(row + dRow, column + ring, ring, latitude, longitude, radiusKm, limit, best);
+                }
+            }
+            double beyond = ringLowerBoundKm(ring, cosMaxLatitude);
+            if (beyond > radiusKm || (best.size() == limit && beyond >= best.peek().distanceKm())) {
+                break;
+            }
+        }
+
+        List<NearbyGround> result = new ArrayList<>(best);
+        result.sort(NEAREST_FIRST);
+        return result;
+    }
+
+    private void collect(int row, int column, int dColumn, double latitude, double longitude, double radiusKm,
+            int limit, PriorityQueue<NearbyGround> best) {
+        // Rows do not wrap over the poles; the half-way column is reached from both sides, count it once
+        if (row < 0 || row >= ROWS || dColumn == COLUMNS / 2) {
+            return;
+        }
+        Ground[] grounds = cells.get(cell(row, Math.floorMod(column, COLUMNS)));
+        if (grounds == null) {
+            return;
+        }
+        for (Ground ground : grounds) {
+            double distance = distanceKm(latitude, longitude, ground.getLatitude(), ground.getLongitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new NearbyGround(ground, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new NearbyGround(ground, distance));
+            }
+        }
+    }
+
+    /*
+     * Closest any ground outside ring {@code ring} can be. Such a ground is at least {@code ring} whole
+     * cells away north-south, or east-west; the east-west bound shrinks towards the poles, so it is
+     * taken at the highest latitude the search reaches.
+     */
+    private static double ringLowerBoundKm(int ring, double cosMaxLatitude) {
+        double cellRadians = Math.toRadians(ring * CELL_DEGREES);
+        double northSouth = cellRadians * EARTH_RADIUS_KM;
+        double eastWest = 2 * EARTH_RADIUS_KM
+                * Math.asin(Math.min(1, cosMaxLatitude * Math.sin(Math.min(Math.PI, cellRadians) / 2)));
+        return Math.min(northSouth, eastWest);
+    }
+
+    // Great-circle distance (haversine)
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(dLatitude / 2), 2) + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double latitude) {
+        return Math.max(0, Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static long cell(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+}
@@ -26,6 +26,11 @@ public class Ground {
 
     private String imageUrl;
 
+    // WGS84 degrees; grounds without coordinates are left out of the nearby search
+    private Double latitude;
+
+    private Double longitude;
+
     @ManyToOne
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
@@ -108,4 +113,20 @@ public class Ground {
     public void setOwner(User owner) {
         this.owner = owner;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
 }
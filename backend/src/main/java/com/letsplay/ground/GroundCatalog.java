@@ -0,0 +1,158 @@
+package com.letsplay.ground;
+
+import com.letsplay.common.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * All grounds in memory, indexed by id, sport type and location, for the venue pages.
+ *
+ * The catalog is read through on first use and only changes when an admin edits a ground, so readers
+ * get an immutable {@link Snapshot} and writers build a complete new one and swap it in after their
+ * transaction commits; a reader never sees half an update. Each snapshot carries content-derived
+ * ETags, identical on every node for the same data, so clients can revalidate without a body. Edits
+ * made through another node are picked up by a periodic reload. Loads are serialized, so a reload that
+ * read the table before a write can never replace the snapshot built after it.
+ */
+@Component
+public class GroundCatalog {
+
+    public record Snapshot(List<Ground> all, Map<Long, Ground> byId, Map<String, List<Ground>> bySport,
+            GeoGridIndex geo, Map<String, GeoGridIndex> geoBySport, Map<Long, String> groundEtags, String etag) {
+
+        public List<Ground> list(String sportType) {
+            if (sportType == null) {
+                return all;
+            }
+            return bySport.getOrDefault(sportType.toLowerCase(Locale.ROOT), List.of());
+        }
+
+        public String listEtag(String sportType) {
+            return "\"" + etag + (sportType != null ? "-" + sportType.toLowerCase(Locale.ROOT) : "") + "\"";
+        }
+
+        public Optional<Ground> get(Long id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+
+        public String groundEtag(Long id) {
+            return "\"" + groundEtags.get(id) + "\"";
+        }
+
+        public List<NearbyGround> nearby(double latitude, double longitude, double radiusKm, int limit,
+                String sportType) {
+            GeoGridIndex index = sportType == null ? geo : geoBySport.get(sportType.toLowerCase(Locale.ROOT));
+            return index != null ? index.nearest(latitude, longitude, radiusKm, limit) : List.of();
+        }
+    }
+
+    private final GroundRepository groundRepository;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final Object loadLock = new Object();
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ground-catalog-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GroundCatalog(GroundRepository groundRepository,
+            @Value("${ground.catalog.reload-seconds:60}") long reloadSeconds) {
+        this.groundRepository = groundRepository;
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (loadLock) {
+            if (current.get() == null) {
+                current.set(build(groundRepository.findAll()));
+            }
+            return current.get();
+        }
+    }
+
+    // Called by every write to grounds; the new snapshot is only built once the write has committed
+    public void refreshAfterCommit() {
+        TransactionCallbacks.afterCommit(this::reloadQuietly);
+    }
+
+    private void reloadQuietly() {
+        try {
+            // Read and swap under the lock; the later of two reloads also reads the later rows
+            synchronized (loadLock) {
+                current.set(build(groundRepository.findAll()));
+            }
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next reload tries again
+            System.err.println("Ground catalog reload failed: " + e.getMessage());
+        }
+    }
+
+    static Snapshot build(List<Ground> grounds) {
+        List<Ground> all = grounds.stream().sorted(Comparator.comparing(Ground::getId)).toList();
+        Map<Long, Ground> byId = new HashMap<>();
+        Map<Long, String> groundEtags = new HashMap<>();
+        MessageDigest catalogDigest = sha256();
+        for (Ground ground : all) {
+            byId.put(ground.getId(), ground);
+            String fingerprint = fingerprint(ground);
+            groundEtags.put(ground.getId(), hash(sha256(), fingerprint));
+            catalogDigest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+        }
+        Map<String, List<Ground>> bySport = all.stream()
+                .filter(ground -> ground.getSportType() != null)
+                .collect(Collectors.groupingBy(ground -> ground.getSportType().toLowerCase(Locale.ROOT),
+                        Collectors.toUnmodifiableList()));
+        Map<String, GeoGridIndex> geoBySport = new HashMap<>();
+        bySport.forEach((sport, sportGrounds) -> geoBySport.put(sport, GeoGridIndex.build(sportGrounds)));
+        return new Snapshot(all, Map.copyOf(byId), Map.copyOf(bySport), GeoGridIndex.build(all),
+                Map.copyOf(geoBySport), Map.copyOf(groundEtags),
+                HexFormat.of().formatHex(catalogDigest.digest(), 0, 12));
+    }
+
+    // Every field the API returns, so any visible change produces a new ETag
+    private static String fingerprint(Ground ground) {
+        return String.join("\u0000", String.valueOf(ground.getId()), ground.getName(), ground.getLocation(),
+                ground.getSportType(), ground.getDescription(), String.valueOf(ground.getPricePerHour()),
+                ground.getImageUrl(), String.valueOf(ground.getLatitude()), String.valueOf(ground.getLongitude()),
+                ground.getOwner() != null ? String.valueOf(ground.getOwner().getId()) : "",
+                ground.getOwner() != null ? ground.getOwner().getName() : "") + "\u0001";
+    }
+
+    private static String hash(MessageDigest digest, String value) {
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)), 0, 12);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reloader.shutdownNow();
+    }
+}
@@ -1,34 +1,66 @@
 package com.letsplay.ground;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
+// Served from the in-memory catalog; an If-None-Match matching the ETag is answered with 304 and no body
 @RestController
 @RequestMapping("/grounds")
 public class GroundController {
 
-    private final GroundRepository groundRepository;
+    private final GroundCatalog groundCatalog;
+    private final double maxRadiusKm;
+    private final int maxResults;
 
-    public GroundController(GroundRepository groundRepository) {
-        this.groundRepository = groundRepository;
+    public GroundController(GroundCatalog groundCatalog,
+            @Value("${ground.nearby.max-radius-km:100}") double maxRadiusKm,
+            @Value("${ground.nearby.max-results:100}") int maxResults) {
+        this.groundCatalog = groundCatalog;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxResults = maxResults;
     }
 
     @GetMapping
     public ResponseEntity<List<Ground>> getAllGrounds(@RequestParam(required = false) String sportType) {
-        if (sportType != null) {
-            return ResponseEntity.ok(groundRepository.findAll().stream()
-                    .filter(g -> g.getSportType().equalsIgnoreCase(sportType))
-                    .toList());
-        }
-        return ResponseEntity.ok(groundRepository.findAll());
+        GroundCatalog.Snapshot catalog = groundCatalog.snapshot();
+        return ResponseEntity.ok()
+                .eTag(catalog.listEtag(sportType))
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.list(sportType));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Ground> getGroundById(@PathVariable Long id) {
-        return groundRepository.findById(id)
-                .map(ResponseEntity::ok)
+        GroundCatalog.Snapshot catalog = groundCatalog.snapshot();
+        return catalog.get(id)
+                .map(ground -> ResponseEntity.ok()
+                        .eTag(catalog.groundEtag(id))
+                        .cacheControl(CacheControl.noCache())
+                        .body(ground))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // Nearest grounds to a point, closest first: at most `limit` of them, none further than `radiusKm`
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyGrounds(@RequestParam double lat, @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm, @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String sportType) {
+        if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid coordinates"));
+        }
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Radius must be between 0 and " + maxRadiusKm + " km"));
+        }
+        if (limit < 1 || limit > maxResults) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Limit must be between 1 and " + maxResults));
+        }
+        return ResponseEntity.ok(groundCatalog.snapshot().nearby(lat, lng, radiusKm, limit, sportType));
+    }
 }
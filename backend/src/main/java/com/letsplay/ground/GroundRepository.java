@@ -1,8 +1,18 @@
 package com.letsplay.ground;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface GroundRepository extends JpaRepository<Ground, Long> {
+
+    // Row lock that serializes slot claims on one ground across every node, see SlotReservationEngine
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g.id FROM Ground g WHERE g.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
 }
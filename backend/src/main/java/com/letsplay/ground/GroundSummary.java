@@ -0,0 +1,6 @@
+package com.letsplay.ground;
+
+// The ground fields list views render, without the owner
+public record GroundSummary(Long id, String name, String location, String sportType, String imageUrl,
+        Double pricePerHour) {
+}
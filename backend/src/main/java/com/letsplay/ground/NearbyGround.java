@@ -0,0 +1,4 @@
+package com.letsplay.ground;
+
+public record NearbyGround(Ground ground, double distanceKm) {
+}
@@ -1,10 +1,23 @@
 package com.letsplay.join;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface JoinRequestRepository extends JpaRepository<JoinRequest, Long> {
     List<JoinRequest> findByBookingId(Long bookingId);
 
     List<JoinRequest> findByRequesterId(Long requesterId);
+
+    @Query("SELECT new com.letsplay.join.JoinRequestSummary(r.id, u.id, u.name, r.booking.id, r.status, r.createdAt) "
+            + "FROM JoinRequest r JOIN r.requester u WHERE r.booking.id = :bookingId ORDER BY r.createdAt")
+    List<JoinRequestSummary> findSummariesByBookingId(@Param("bookingId") Long bookingId);
+
+    // Answers the request only if nobody has answered it yet; 0 means another answer won
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JoinRequest r SET r.status = :status "
+            + "WHERE r.id = :id AND r.status = com.letsplay.join.JoinRequest$RequestStatus.PENDING")
+    int answerIfPending(@Param("id") Long id, @Param("status") JoinRequest.RequestStatus status);
 }
@@ -2,8 +2,10 @@ package com.letsplay.join;
 
 import com.letsplay.booking.Booking;
 import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.SlotAvailabilityIndex;
 import com.letsplay.notification.Notification;
 import com.letsplay.notification.NotificationRepository;
+import com.letsplay.notification.NotificationSummary;
 import com.letsplay.user.User;
 import com.letsplay.user.UserRepository;
 import org.springframework.stereotype.Service;
@@ -18,13 +20,16 @@ public class JoinRequestService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
 
     public JoinRequestService(JoinRequestRepository joinRequestRepository, BookingRepository bookingRepository,
-            UserRepository userRepository, NotificationRepository notificationRepository) {
+            UserRepository userRepository, NotificationRepository notificationRepository,
+            SlotAvailabilityIndex slotAvailabilityIndex) {
         this.joinRequestRepository = joinRequestRepository;
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
     }
 
     @Transactional
@@ -53,37 +58,38 @@ public class JoinRequestService {
         JoinRequest request = joinRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
 
+        // Only the first answer counts; a second accept of the same request must not take another spot
+        if (joinRequestRepository.answerIfPending(requestId, status) == 0) {
+            throw new RuntimeException("Request has already been answered");
+        }
         request.setStatus(status);
-        JoinRequest updated = joinRequestRepository.save(request);
 
         if (status == JoinRequest.RequestStatus.ACCEPTED) {
-            // Update Booking Count
             Booking booking = request.getBooking();
-            if (booking.getJoinedPlayers() < booking.getMaxPlayers()) {
-                booking.setJoinedPlayers(booking.getJoinedPlayers() + 1);
-                bookingRepository.save(booking);
-
-                // Notify Requester
-                createNotification(request.getRequester(), "Request Accepted",
-                        "Your request to join " + booking.getGround().getName() + " has been accepted!");
-            } else {
+            // Conditional increment; a full game rolls the answer back with the exception
+            if (bookingRepository.claimPlayerSpot(booking.getId()) == 0) {
                 throw new RuntimeException("Booking is full");
             }
+            bookingRepository.findById(booking.getId()).ifPresent(slotAvailabilityIndex::record);
+
+            // Notify Requester
+            createNotification(request.getRequester(), "Request Accepted",
+                    "Your request to join " + booking.getGround().getName() + " has been accepted!");
         } else if (status == JoinRequest.RequestStatus.REJECTED) {
             // Notify Requester
             createNotification(request.getRequester(), "Request Rejected",
                     "Your request to join " + request.getBooking().getGround().getName() + " was rejected.");
         }
 
-        return updated;
+        return request;
     }
 
-    public List<JoinRequest> getRequestsForBooking(Long bookingId) {
-        return joinRequestRepository.findByBookingId(bookingId);
+    public List<JoinRequestSummary> getRequestsForBooking(Long bookingId) {
+        return joinRequestRepository.findSummariesByBookingId(bookingId);
     }
 
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public List<NotificationSummary> getUserNotifications(Long userId) {
+        return notificationRepository.findSummariesByUserId(userId);
     }
 
     private void createNotification(User user, String title, String message) {
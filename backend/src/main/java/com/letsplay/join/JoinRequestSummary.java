@@ -0,0 +1,15 @@
+package com.letsplay.join;
+
+import com.letsplay.user.UserSummary;
+
+import java.time.LocalDateTime;
+
+// Read model for join request lists; see JoinRequestRepository.findSummariesByBookingId
+public record JoinRequestSummary(Long id, UserSummary requester, Long bookingId, JoinRequest.RequestStatus status,
+        LocalDateTime createdAt) {
+
+    public JoinRequestSummary(Long id, Long requesterId, String requesterName, Long bookingId,
+            JoinRequest.RequestStatus status, LocalDateTime createdAt) {
+        this(id, new UserSummary(requesterId, requesterName), bookingId, status, createdAt);
+    }
+}
@@ -15,7 +15,7 @@ public class NotificationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getUserNotifications(@RequestParam Long userId) {
+    public ResponseEntity<List<NotificationSummary>> getUserNotifications(@RequestParam Long userId) {
         return ResponseEntity.ok(joinRequestService.getUserNotifications(userId));
     }
 }
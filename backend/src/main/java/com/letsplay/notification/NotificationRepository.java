@@ -1,8 +1,14 @@
 package com.letsplay.notification;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    @Query("SELECT new com.letsplay.notification.NotificationSummary(n.id, n.title, n.message, n.isRead, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+    List<NotificationSummary> findSummariesByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,8 @@
+package com.letsplay.notification;
+
+import java.time.LocalDateTime;
+
+// Read model for a user's notification list; the recipient is implied by the query
+public record NotificationSummary(Long id, String title, String message, Boolean isRead,
+        LocalDateTime createdAt) {
+}
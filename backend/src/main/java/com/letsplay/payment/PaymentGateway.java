@@ -0,0 +1,21 @@
+package com.letsplay.payment;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges a customer for a booking. Charges are asynchronous: the returned future completes once
+ * the provider has approved or declined the charge, and completes exceptionally only when the
+ * outcome is unknown (provider unreachable, timeout), in which case the caller may retry with the
+ * same idempotency key.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<PaymentResult> charge(PaymentRequest request);
+
+    /**
+     * Gives back {@code amount} of the charge made with the request's idempotency key, e.g. when the
+     * booking it paid for could not be confirmed. Refunds are idempotent per key like charges, so a
+     * retried refund returns the money once.
+     */
+    CompletableFuture<PaymentResult> refund(PaymentRequest request);
+}
@@ -0,0 +1,5 @@
+package com.letsplay.payment;
+
+// The idempotency key identifies the charge across retries, so a retried charge is taken once
+public record PaymentRequest(String idempotencyKey, double amount, String description) {
+}
@@ -0,0 +1,66 @@
+package com.letsplay.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stand-in for a real payment provider. Approves charges after a fixed delay, declining a
+ * configurable share of them, and approves every refund; the delay is a timer, not a sleeping
+ * thread, so any number of charges can be in flight. Concurrent charges (or refunds) with the same
+ * idempotency key share one outcome.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long delayMillis;
+    private final double declineRate;
+    private final Map<String, CompletableFuture<PaymentResult>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simulated-payment-gateway");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SimulatedPaymentGateway(@Value("${payment.simulated.delay-ms:3000}") long delayMillis,
+            @Value("${payment.simulated.decline-rate:0}") double declineRate) {
+        this.delayMillis = delayMillis;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> charge(PaymentRequest request) {
+        return settleLater("charge:" + request.idempotencyKey(),
+                () -> ThreadLocalRandom.current().nextDouble() < declineRate
+                        ? PaymentResult.declined("Card declined")
+                        : PaymentResult.approved("sim-" + UUID.randomUUID()));
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> refund(PaymentRequest request) {
+        return settleLater("refund:" + request.idempotencyKey(),
+                () -> PaymentResult.approved("sim-" + UUID.randomUUID()));
+    }
+
+    private CompletableFuture<PaymentResult> settleLater(String key, Supplier<PaymentResult> outcome) {
+        return inFlight.computeIfAbsent(key, k -> {
+            CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+            timer.schedule(() -> {
+                inFlight.remove(k);
+                result.complete(outcome.get());
+            }, delayMillis, TimeUnit.MILLISECONDS);
+            return result;
+        });
+    }
+}
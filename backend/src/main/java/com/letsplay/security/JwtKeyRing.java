@@ -0,0 +1,135 @@
+package com.letsplay.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The keys tokens are signed and verified with. One key is active for signing; every key in the ring
+ * verifies, which gives the overlap needed to rotate without logging anyone out. Readers see an
+ * immutable snapshot that is swapped whole when the key file changes.
+ */
+@Component
+public class JwtKeyRing {
+
+    record Snapshot(String activeKeyId, Map<String, SecretKey> keys) {
+        SecretKey activeKey() {
+            return keys.get(activeKeyId);
+        }
+    }
+
+    private final Path keyFile;
+    private volatile Snapshot snapshot;
+    private volatile long keyFileModified;
+    private final ScheduledExecutorService watcher;
+
+    public JwtKeyRing(JwtProperties properties) {
+        this.keyFile = isBlank(properties.keyFile()) ? null : Path.of(properties.keyFile());
+        if (keyFile != null) {
+            reloadIfChanged();
+            long refreshMillis = properties.keyFileRefresh().toMillis();
+            watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwt-key-file-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        } else {
+            watcher = null;
+            if (properties.keys().isEmpty()) {
+                String keyId = "local-" + UUID.randomUUID();
+                snapshot = new Snapshot(keyId, Map.of(keyId, Keys.secretKeyFor(SignatureAlgorithm.HS256)));
+                System.err.println("No JWT signing keys configured (security.jwt.*); using a random key. "
+                        + "Tokens will not be accepted by other instances or after a restart.");
+            } else {
+                snapshot = snapshot(properties.activeKeyId(), properties.keys());
+            }
+        }
+    }
+
+    public String activeKeyId() {
+        return snapshot.activeKeyId();
+    }
+
+    public SecretKey activeKey() {
+        return snapshot.activeKey();
+    }
+
+    // Null once a key has been dropped from the ring, so its tokens stop verifying
+    public SecretKey key(String keyId) {
+        return keyId != null ? snapshot.keys().get(keyId) : null;
+    }
+
+    void reloadIfChanged() {
+        try {
+            long modified = Files.getLastModifiedTime(keyFile).toMillis();
+            if (snapshot != null && modified == keyFileModified) {
+                return;
+            }
+            Properties file = new Properties();
+            try (Reader reader = Files.newBufferedReader(keyFile)) {
+                file.load(reader);
+            }
+            Map<String, String> secrets = new HashMap<>();
+            for (String name : file.stringPropertyNames()) {
+                if (name.startsWith("keys.")) {
+                    secrets.put(name.substring("keys.".length()), file.getProperty(name));
+                }
+            }
+            snapshot = snapshot(file.getProperty("active-key-id"), secrets);
+            keyFileModified = modified;
+            System.out.println("Loaded JWT key ring from " + keyFile + ": " + snapshot.keys().keySet()
+                    + ", signing with " + snapshot.activeKeyId());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key file " + keyFile, e);
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reloadIfChanged();
+        } catch (Exception e) {
+            // Keep verifying with the keys we have; a half-written file is picked up on the next round
+            System.err.println("JWT key file reload failed, keeping current keys: " + e.getMessage());
+        }
+    }
+
+    private static Snapshot snapshot(String activeKeyId, Map<String, String> secrets) {
+        Map<String, SecretKey> keys = new HashMap<>();
+        secrets.forEach((keyId, secret) ->
+                keys.put(keyId, Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret.trim()))));
+        if (isBlank(activeKeyId) && keys.size() == 1) {
+            activeKeyId = keys.keySet().iterator().next();
+        }
+        if (isBlank(activeKeyId) || !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("JWT active key id '" + activeKeyId + "' is not one of " + keys.keySet());
+        }
+        return new Snapshot(activeKeyId, Map.copyOf(keys));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+}
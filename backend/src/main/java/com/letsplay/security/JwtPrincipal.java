@@ -0,0 +1,12 @@
+package com.letsplay.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Who a request belongs to, taken from the token alone; getName() stays the email controllers look up by
+public record JwtPrincipal(Long userId, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,24 @@
+package com.letsplay.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Signing keys under {@code security.jwt.*}, shared by every API node so any node can verify any token.
+ *
+ * Keys are Base64 secrets of at least 256 bits, by key id. They come either from {@code keys}
+ * (e.g. SECURITY_JWT_KEYS_2026A=...) or from {@code key-file}, a properties file with an
+ * {@code active-key-id} line and one {@code keys.<id>=<secret>} line per key. The file is re-read when
+ * it changes, so keys can be rotated without a restart:
+ * add the new key everywhere, make it active, and drop the old one once its tokens have expired.
+ */
+@ConfigurationProperties(prefix = "security.jwt")
+public record JwtProperties(
+        String activeKeyId,
+        @DefaultValue Map<String, String> keys,
+        String keyFile,
+        @DefaultValue("30s") Duration keyFileRefresh) {
+}
@@ -1,60 +1,106 @@
 package com.letsplay.security;
 
+import com.letsplay.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    public static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 60 * 10; // 10 hours
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private final JwtKeyRing keyRing;
+    // Immutable once built, so one parser serves every request thread; the kid header picks the key
+    private final JwtParser parser;
+
+    // Chatty clients send the same token many times a minute; a hit skips Base64, HMAC and JSON parsing.
+    // Keyed on the whole token, not just its signature part, so a reused signature never vouches for other claims.
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(JwtKeyRing keyRing, @Value("${security.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = keyRing.key(header.getKeyId());
+                if (key == null) {
+                    throw new SignatureException("Unknown signing key " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Checks signature and expiry once and returns all claims; empty for anything that does not verify
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            // A key removed from the ring revokes its tokens, cached or not
+            if (!cached.isExpired() && keyRing.key(cached.keyId()) != null) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(token);
+            return Optional.empty();
+        }
+        VerifiedToken verified;
+        try {
+            Jws<Claims> jws = parser.parseClaimsJws(token);
+            verified = toVerifiedToken(jws.getHeader().getKeyId(), jws.getBody());
+        } catch (Exception e) {
+            // Bad signature, malformed or expired
+            return Optional.empty();
+        }
+        verifiedTokens.put(token, verified);
+        return Optional.of(verified);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token).getBody();
+    @SuppressWarnings("unchecked")
+    private static VerifiedToken toVerifiedToken(String keyId, Claims claims) {
+        List<String> roles = claims.get(ROLES_CLAIM, List.class);
+        return new VerifiedToken(claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class),
+                roles != null ? List.copyOf(roles) : Collections.emptyList(), claims.getId(),
+                claims.getExpiration(), keyId);
     }
 
-    public String generateToken(String username) {
+    // Carries everything the filter needs, so authenticating a request never touches the database
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLES_CLAIM, user.getRoles() != null
+                ? user.getRoles().stream().map(Enum::name).sorted().toList()
+                : List.of());
+        return createToken(claims, user.getEmail());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.activeKeyId())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MILLIS))
+                .signWith(keyRing.activeKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
 }
@@ -0,0 +1,93 @@
+package com.letsplay.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt password hashing on a small, bounded pool of its own.
+ *
+ * Hashing is deliberately slow, so it is kept off the request threads: callers get a future and the
+ * servlet thread is released while the hash runs. The pool has one thread per core and a fixed queue;
+ * when a login storm fills the queue, submissions are rejected straight away instead of piling up
+ * behind each other and starving the rest of the API.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String BCRYPT_PREFIX = "$2";
+
+    private final BCryptPasswordEncoder encoder;
+    // Compared against when the email is unknown, so a miss takes as long as a wrong password
+    private final String dummyHash;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(@Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.hash-threads:0}") int threads,
+            @Value("${security.password.hash-queue:256}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.dummyHash = encoder.encode("not-a-real-password");
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Throws RejectedExecutionException when the queue is full
+    public CompletableFuture<String> hash(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> encode(rawPassword), executor);
+    }
+
+    // A missing stored hash never matches, but still costs one hash
+    public CompletableFuture<Boolean> matches(String rawPassword, String storedPassword) {
+        return CompletableFuture.supplyAsync(() -> matchesNow(rawPassword, storedPassword), executor);
+    }
+
+    // Synchronous variant for startup code such as the data seeder
+    public String encode(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    // True for rows written before passwords were hashed, or with a lower cost than configured now
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private boolean matchesNow(String rawPassword, String storedPassword) {
+        if (rawPassword == null) {
+            return false;
+        }
+        if (storedPassword == null) {
+            encoder.matches(rawPassword, dummyHash);
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            // Legacy plaintext row; it is rehashed by the caller after a successful login
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return encoder.matches(rawPassword, storedPassword);
+    }
+
+    private static boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith(BCRYPT_PREFIX);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,101 @@
+package com.letsplay.security;
+
+import com.letsplay.booking.BookingBacklogGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the hot endpoints: per-client token buckets for each configured route,
+ * answered with 429 and Retry-After once a client has used its burst, and 503 for booking writes while
+ * the workflow backlog is over its threshold. Runs after the JWT filter so signed-in clients are
+ * limited by user id. Only the first route matching a request applies.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long SHED_RETRY_AFTER_SECONDS = 5;
+
+    record LimitedRoute(RateLimitProperties.Route config, StripedRateLimiter limiter) {
+    }
+
+    private final RateLimitProperties properties;
+    private final BookingBacklogGauge backlogGauge;
+    private final List<LimitedRoute> routes = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, BookingBacklogGauge backlogGauge) {
+        this.properties = properties;
+        this.backlogGauge = backlogGauge;
+        for (RateLimitProperties.Route route : properties.routes()) {
+            routes.add(new LimitedRoute(route, new StripedRateLimiter(route.capacity(), route.perSecond(),
+                    properties.stripes(), properties.maxClients())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitedRoute route = properties.enabled() ? match(request) : null;
+        if (route != null) {
+            if (route.config().shedOnBacklog() && backlogGauge.pending() > properties.backlogThreshold()) {
+                reject(response, 503, SHED_RETRY_AFTER_SECONDS, "Bookings are queued up right now, please retry shortly");
+                return;
+            }
+            long waitNanos = route.limiter().tryAcquire(clientKey(request), System.nanoTime());
+            if (waitNanos > 0) {
+                reject(response, 429, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)),
+                        "Too many requests, please slow down");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private LimitedRoute match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedRoute route : routes) {
+            String method = route.config().method();
+            if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : route.config().patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                && principal.userId() != null) {
+            return "user:" + principal.userId();
+        }
+        String header = properties.clientIpHeader();
+        String forwarded = header != null && !header.isBlank() ? request.getHeader(header) : null;
+        return "ip:" + (forwarded != null && !forwarded.isBlank() ? forwarded.trim() : request.getRemoteAddr());
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
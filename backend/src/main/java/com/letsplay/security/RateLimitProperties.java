@@ -0,0 +1,33 @@
+package com.letsplay.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Per-client limits under {@code security.rate-limit.*}. Clients are told apart by user id when the
+ * request carries a valid token and by address otherwise; behind a proxy, {@code client-ip-header}
+ * names the header holding the caller's address. Each route allows bursts of {@code capacity}
+ * requests refilled at {@code per-second}; routes marked {@code shed-on-backlog} are also refused
+ * while more than {@code backlog-threshold} bookings are waiting for their workflow.
+ */
+@ConfigurationProperties(prefix = "security.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        String clientIpHeader,
+        @DefaultValue("64") int stripes,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue("500") long backlogThreshold,
+        @DefaultValue List<Route> routes) {
+
+    public record Route(
+            String name,
+            // Null matches every method
+            String method,
+            List<String> patterns,
+            int capacity,
+            double perSecond,
+            boolean shedOnBacklog) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.letsplay.security;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A token cut short before its expiry, e.g. on logout, shared by every API node; see
+ * {@link TokenRevocationList}. Rows are only needed until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+public class RevokedToken {
+
+    // The token's jti claim
+    @Id
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String tokenId, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
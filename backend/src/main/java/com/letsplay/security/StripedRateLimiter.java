@@ -0,0 +1,71 @@
+package com.letsplay.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client, without locks.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm); taking a token is one compare-and-set, so clients never wait on
+ * each other. Buckets are spread over independent stripes, and a stripe that reaches its share of
+ * {@code maxClients} drops the buckets that have refilled completely, which are indistinguishable
+ * from new ones.
+ */
+public class StripedRateLimiter {
+
+    private final Map<String, AtomicLong>[] stripes;
+    private final int maxPerStripe;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    @SuppressWarnings("unchecked")
+    public StripedRateLimiter(int capacity, double perSecond, int stripeCount, int maxClients) {
+        if (capacity < 1 || perSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and a positive refill rate");
+        }
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxPerStripe = Math.max(1, maxClients / stripeCount);
+        this.intervalNanos = (long) (1_000_000_000L / perSecond);
+        this.burstNanos = intervalNanos * (capacity - 1);
+    }
+
+    // 0 when a token was taken, otherwise how long until the next one is available
+    public long tryAcquire(String client, long nowNanos) {
+        Map<String, AtomicLong> stripe = stripes[Math.floorMod(client.hashCode(), stripes.length)];
+        AtomicLong fullAt = stripe.get(client);
+        if (fullAt == null) {
+            if (stripe.size() >= maxPerStripe) {
+                stripe.values().removeIf(bucket -> bucket.get() <= nowNanos);
+                if (stripe.size() >= maxPerStripe) {
+                    // Every tracked client is mid-burst; admit rather than grow without bound
+                    return 0;
+                }
+            }
+            fullAt = stripe.computeIfAbsent(client, key -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int trackedClients() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,99 @@
+package com.letsplay.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens that must stop working before they expire, e.g. on logout.
+ *
+ * Authentication no longer reads the user from the database, so this is the only way to cut a token
+ * short. Revocations are written to the {@code revoked_tokens} table, which every node reads back
+ * every few seconds, so a logged-out token stops working on the node that revoked it at once and on
+ * the others within one sync interval. Requests are checked against the in-memory copy only.
+ * Entries are dropped once their token would have expired anyway, so the list stays small.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long syncSeconds;
+    // token id -> expiry of that token
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-revocation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${security.revocation.sync-seconds:5}") long syncSeconds) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.syncSeconds = syncSeconds;
+    }
+
+    public void revoke(String tokenId, Date expiresAt) {
+        transactionTemplate.executeWithoutResult(status ->
+                revokedTokenRepository.insertIfAbsent(tokenId, toLocal(expiresAt.getTime())));
+        revokedTokens.put(tokenId, expiresAt.getTime());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revokedTokens.containsKey(tokenId);
+    }
+
+    @PostConstruct
+    public void start() {
+        sync();
+        syncer.scheduleWithFixedDelay(this::sync, syncSeconds, syncSeconds, TimeUnit.SECONDS);
+        syncer.scheduleWithFixedDelay(this::prune, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        syncer.shutdownNow();
+    }
+
+    // Picks up tokens revoked through other nodes
+    void sync() {
+        try {
+            long now = System.currentTimeMillis();
+            for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(toLocal(now))) {
+                revokedTokens.put(token.getTokenId(),
+                        token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            revokedTokens.values().removeIf(expiry -> expiry < now);
+        } catch (Exception e) {
+            // Keep what we have; the next sync tries again
+            System.err.println("Failed to sync revoked tokens: " + e.getMessage());
+        }
+    }
+
+    private void prune() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    revokedTokenRepository.deleteExpiredBefore(LocalDateTime.now()));
+        } catch (Exception e) {
+            System.err.println("Failed to prune revoked tokens: " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
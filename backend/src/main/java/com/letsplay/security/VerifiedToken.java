@@ -0,0 +1,13 @@
+package com.letsplay.security;
+
+import java.util.Date;
+import java.util.List;
+
+// Everything the filter and logout need from a token, read in one signature check
+public record VerifiedToken(String subject, Long userId, List<String> roles, String tokenId, Date expiresAt,
+        String keyId) {
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.getTime() <= System.currentTimeMillis();
+    }
+}
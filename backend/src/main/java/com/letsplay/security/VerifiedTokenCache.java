@@ -0,0 +1,61 @@
+package com.letsplay.security;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tokens whose signature has already been checked, keyed on the whole token.
+ *
+ * Every authenticated request reads this, so reads take no lock at all: a hit is a plain
+ * {@link ConcurrentHashMap} lookup with no recency bookkeeping. Instead of LRU order, an insert that
+ * takes the cache over its limit drops expired tokens first and then an arbitrary tenth of the rest;
+ * a token dropped too early only costs one more signature check. Only one thread evicts at a time,
+ * the others carry on.
+ */
+final class VerifiedTokenCache {
+
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    VerifiedToken get(String token) {
+        return entries.get(token);
+    }
+
+    void put(String token, VerifiedToken verified) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        entries.put(token, verified);
+        if (entries.size() > maxEntries && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    void remove(String token) {
+        entries.remove(token);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        entries.values().removeIf(VerifiedToken::isExpired);
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<String> tokens = entries.keySet().iterator();
+        while (entries.size() > target && tokens.hasNext()) {
+            tokens.next();
+            tokens.remove();
+        }
+    }
+}
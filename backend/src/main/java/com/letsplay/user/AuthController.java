@@ -1,11 +1,16 @@
 package com.letsplay.user;
 
+import com.letsplay.security.PasswordHasher;
+import com.letsplay.security.TokenRevocationList;
+import com.letsplay.security.VerifiedToken;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -13,47 +18,96 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final com.letsplay.security.JwtUtil jwtUtil;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocationList revocationList;
 
-    public AuthController(UserRepository userRepository, com.letsplay.security.JwtUtil jwtUtil) {
+    public AuthController(UserRepository userRepository, com.letsplay.security.JwtUtil jwtUtil,
+            PasswordHasher passwordHasher, TokenRevocationList revocationList) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.passwordHasher = passwordHasher;
+        this.revocationList = revocationList;
     }
 
+    // The password check runs on the hasher pool; the request thread is released until it finishes
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials) {
         String email = credentials.get("email");
         String password = credentials.get("password");
 
-        Optional<User> userOpt = userRepository.findAll().stream()
-                .filter(u -> u.getEmail().equals(email) && u.getPassword().equals(password))
-                .findFirst();
-
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            String token = jwtUtil.generateToken(user.getEmail());
-            // Return token and user info
-            Map<String, Object> response = new java.util.HashMap<>();
-            response.put("token", token);
-            response.put("user", user);
-            return ResponseEntity.ok(response);
-        }
+        Optional<User> userOpt = email != null ? userRepository.findByEmail(email) : Optional.empty();
+        String storedPassword = userOpt.map(User::getPassword).orElse(null);
 
-        return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+        try {
+            return passwordHasher.matches(password, storedPassword).thenApply(matched -> {
+                if (!matched) {
+                    return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+                }
+                User user = userOpt.get();
+                if (passwordHasher.needsRehash(storedPassword)) {
+                    // Plaintext rows from before hashing, or a raised cost factor; we know the password now
+                    user.setPassword(passwordHasher.encode(password));
+                    userRepository.save(user);
+                }
+                String token = jwtUtil.generateToken(user);
+                // Return token and user info
+                Map<String, Object> response = new java.util.HashMap<>();
+                response.put("token", token);
+                response.put("user", user);
+                return ResponseEntity.ok(response);
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
-        if (userRepository.findAll().stream().anyMatch(u -> u.getEmail().equals(user.getEmail()))) {
-            return ResponseEntity.badRequest().body(Map.of("message", "User already exists"));
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody User user) {
+        if (user.getEmail() == null || user.getPassword() == null || user.getPassword().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("message", "Email and password are required")));
+        }
+        if (userRepository.existsByEmail(user.getEmail())) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("message", "User already exists")));
         }
         try {
-            user.setRoles(new java.util.HashSet<>(Collections.singleton(User.Role.USER)));
-            User savedUser = userRepository.save(user);
-            return ResponseEntity.ok(savedUser);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("message", "Registration failed: " + e.getMessage()));
+            return passwordHasher.hash(user.getPassword()).thenApply(hash -> {
+                try {
+                    user.setPassword(hash);
+                    user.setRoles(new java.util.HashSet<>(Collections.singleton(User.Role.USER)));
+                    User savedUser = userRepository.save(user);
+                    return ResponseEntity.ok(savedUser);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return ResponseEntity.internalServerError()
+                            .body(Map.of("message", "Registration failed: " + e.getMessage()));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         }
     }
+
+    // Tokens are not looked up per request, so logging out has to revoke the token itself
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(Map.of("message", "No token to revoke"));
+        }
+        Optional<VerifiedToken> token = jwtUtil.verify(authorization.substring(7));
+        if (token.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid token"));
+        }
+        if (token.get().tokenId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Token cannot be revoked"));
+        }
+        revocationList.revoke(token.get().tokenId(), token.get().expiresAt());
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(503).header("Retry-After", "1")
+                .body(Map.of("message", "Too many sign-ins right now, please retry"));
+    }
 }
@@ -1,10 +1,15 @@
 package com.letsplay.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.util.Set;
 
+// Bookings are created with a reference to their user rather than a loaded row; when such a
+// reference is returned, Jackson skips the Hibernate proxy internals and serializes the user itself
 @Entity
 @Table(name = "users")
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class User {
 
     @Id
@@ -14,6 +19,8 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
+    // Accepted on registration, never echoed back: the column holds the BCrypt hash
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -6,4 +6,6 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     java.util.Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
 }
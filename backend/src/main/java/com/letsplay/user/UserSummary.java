@@ -0,0 +1,5 @@
+package com.letsplay.user;
+
+// Public face of a user in list responses: no email, password or roles
+public record UserSummary(Long id, String name) {
+}
@@ -0,0 +1,52 @@
+package com.letsplay.workflow;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks an activity invocation as done, written in the same transaction as the activity's effect.
+ * The id is the workflow run plus the activity id, which stays the same across retries of one
+ * invocation; see {@link ActivityDedup}.
+ */
+@Entity
+@Table(name = "activity_completions", indexes = @Index(name = "idx_activity_completions_completed_at", columnList = "completedAt"))
+public class ActivityCompletion {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String workflowId;
+
+    @Column(nullable = false)
+    private String activityType;
+
+    // The attempt that completed
+    private int attempt;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+    public ActivityCompletion() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    public String getActivityType() {
+        return activityType;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.letsplay.workflow;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ActivityCompletionRepository extends JpaRepository<ActivityCompletion, String> {
+
+    // Plain insert without the select a merge of an entity with an assigned id would do first
+    @Modifying
+    @Query(value = "INSERT INTO activity_completions (id, workflow_id, activity_type, attempt, completed_at) "
+            + "VALUES (:id, :workflowId, :activityType, :attempt, :completedAt) ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("workflowId") String workflowId,
+            @Param("activityType") String activityType, @Param("attempt") int attempt,
+            @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM ActivityCompletion c WHERE c.completedAt < :before")
+    int deleteCompletedBefore(@Param("before") LocalDateTime before);
+}
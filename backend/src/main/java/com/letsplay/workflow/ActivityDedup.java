@@ -0,0 +1,108 @@
+package com.letsplay.workflow;
+
+import com.letsplay.common.BoundedCache;
+import com.letsplay.common.TransactionCallbacks;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets an activity with side effects tell whether an earlier attempt of the same invocation already
+ * completed, e.g. when the attempt committed but its completion never reached Temporal.
+ *
+ * The activity records its completion in the same transaction as its effect. Retries check a
+ * bounded in-memory set of recent completions first and fall back to the {@code activity_completions}
+ * table; first attempts cannot have a predecessor and skip both. Rows are pruned once they are far
+ * older than any retry could be.
+ */
+@Component
+public class ActivityDedup {
+
+    public record Key(String id, String workflowId, String activityType, int attempt) {
+    }
+
+    private final ActivityCompletionRepository completionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedCache<String, Boolean> recentCompletions;
+    private final long retentionHours;
+    private final ScheduledExecutorService pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "activity-dedup-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ActivityDedup(ActivityCompletionRepository completionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.activity-dedup.cache-size:10000}") int cacheSize,
+            @Value("${booking.activity-dedup.retention-hours:24}") long retentionHours) {
+        this.completionRepository = completionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recentCompletions = new BoundedCache<>(cacheSize);
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * The key of the activity invocation running on this thread, or empty outside a Temporal
+     * activity (e.g. when the in-process pipeline calls the activity implementation directly).
+     */
+    public Optional<Key> currentKey() {
+        ActivityInfo info;
+        try {
+            info = Activity.getExecutionContext().getInfo();
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        return Optional.of(new Key(info.getRunId() + "/" + info.getActivityId(), info.getWorkflowId(),
+                info.getActivityType(), info.getAttempt()));
+    }
+
+    public boolean isCompleted(Key key) {
+        if (key.attempt() <= 1) {
+            return false;
+        }
+        if (recentCompletions.get(key.id()) != null) {
+            return true;
+        }
+        return completionRepository.existsById(key.id());
+    }
+
+    // Must run inside the transaction that applies the activity's effect
+    public void recordCompleted(Key key) {
+        completionRepository.insertIfAbsent(key.id(), key.workflowId(), key.activityType(), key.attempt(),
+                LocalDateTime.now());
+        TransactionCallbacks.afterCommit(() -> recentCompletions.put(key.id(), Boolean.TRUE));
+    }
+
+    @PostConstruct
+    public void start() {
+        pruner.scheduleWithFixedDelay(this::prune, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pruner.shutdownNow();
+    }
+
+    private void prune() {
+        try {
+            Integer removed = transactionTemplate.execute(status ->
+                    completionRepository.deleteCompletedBefore(LocalDateTime.now().minusHours(retentionHours)));
+            if (removed != null && removed > 0) {
+                System.out.println("Pruned " + removed + " activity completion records");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to prune activity completion records: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.letsplay.workflow;
+
+import com.letsplay.payment.PaymentGateway;
+import com.letsplay.payment.PaymentRequest;
+import com.letsplay.payment.PaymentResult;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.ActivityCompletionClient;
+import io.temporal.failure.ApplicationFailure;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Runs a payment activity without holding a worker thread for the duration of the charge. The
+ * calling activity returns straight away with {@code doNotCompleteOnReturn}; when the gateway
+ * answers, the outcome is recorded and the activity completed through its task token.
+ */
+@Component
+public class AsyncPaymentCompleter {
+
+    private final PaymentGateway paymentGateway;
+    private final ActivityCompletionClient completionClient;
+    private final TransactionTemplate transactionTemplate;
+
+    public AsyncPaymentCompleter(PaymentGateway paymentGateway, ActivityCompletionClient completionClient,
+            PlatformTransactionManager transactionManager) {
+        this.paymentGateway = paymentGateway;
+        this.completionClient = completionClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Must be called from inside an activity, which should return right after. {@code onApproved}
+     * runs in a transaction before the activity is completed; a decline fails the activity
+     * without retries, an unknown outcome fails it so Temporal retries with the same key.
+     */
+    public void charge(PaymentRequest request, Runnable onApproved) {
+        complete(request, "Payment", paymentGateway::charge, onApproved);
+    }
+
+    /** Same as {@link #charge}, giving money back instead; {@code onRefunded} runs once it is. */
+    public void refund(PaymentRequest request, Runnable onRefunded) {
+        complete(request, "Refund", paymentGateway::refund, onRefunded);
+    }
+
+    private void complete(PaymentRequest request, String kind,
+            Function<PaymentRequest, CompletableFuture<PaymentResult>> call, Runnable onApproved) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        byte[] taskToken = context.getTaskToken();
+        context.doNotCompleteOnReturn();
+
+        call.apply(request).whenComplete((result, error) -> {
+            try {
+                if (error != null) {
+                    completionClient.completeExceptionally(taskToken, new RuntimeException(
+                            kind + " outcome unknown for " + request.idempotencyKey() + ": " + error.getMessage()));
+                } else if (!result.approved()) {
+                    completionClient.completeExceptionally(taskToken, ApplicationFailure.newNonRetryableFailure(
+                            kind + " declined: " + result.declineReason(), kind + "Declined"));
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> onApproved.run());
+                    completionClient.complete(taskToken, null);
+                }
+            } catch (Exception e) {
+                // Temporal unreachable or the write failed; the activity times out and is retried
+                System.err.println("Failed to complete " + kind.toLowerCase() + " " + request.idempotencyKey() + ": "
+                        + e.getMessage());
+            }
+        });
+    }
+}
@@ -8,6 +8,13 @@ public interface BookingActivities {
     @ActivityMethod
     void validateBooking(Long bookingId);
 
+    /**
+     * Sends the booking's claim to its ground's {@link GroundReservationWorkflow}, starting that
+     * workflow if needed. The decision arrives as a signal; returns the ground id.
+     */
+    @ActivityMethod
+    Long requestGroundReservation(Long bookingId);
+
     @ActivityMethod
     void reserveGround(Long bookingId);
 
@@ -19,4 +26,11 @@ public interface BookingActivities {
 
     @ActivityMethod
     void markBookingFailed(Long bookingId, String reason);
+
+    /**
+     * Gives the money back for a booking that was charged but did not get confirmed, e.g. because its
+     * slot hold lapsed while the charge was in flight. Does nothing for any other booking.
+     */
+    @ActivityMethod
+    void refundPayment(Long bookingId);
 }
@@ -2,16 +2,41 @@ package com.letsplay.workflow;
 
 import com.letsplay.booking.Booking;
 import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.BookingStatusPublisher;
+import com.letsplay.booking.SlotAvailabilityIndex;
+import com.letsplay.booking.SlotReservationEngine;
+import com.letsplay.payment.PaymentRequest;
+import io.temporal.activity.Activity;
+import io.temporal.client.BatchRequest;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.failure.ApplicationFailure;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Component
 public class BookingActivitiesImpl implements BookingActivities {
 
     private final BookingRepository bookingRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final SlotReservationEngine slotReservationEngine;
+    private final BookingStatusPublisher bookingStatusPublisher;
+    private final AsyncPaymentCompleter asyncPaymentCompleter;
+    private final WorkflowClient workflowClient;
+    private final ActivityDedup activityDedup;
 
-    public BookingActivitiesImpl(BookingRepository bookingRepository) {
+    public BookingActivitiesImpl(BookingRepository bookingRepository, SlotAvailabilityIndex slotAvailabilityIndex,
+            SlotReservationEngine slotReservationEngine, BookingStatusPublisher bookingStatusPublisher,
+            AsyncPaymentCompleter asyncPaymentCompleter, WorkflowClient workflowClient, ActivityDedup activityDedup) {
         this.bookingRepository = bookingRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.slotReservationEngine = slotReservationEngine;
+        this.bookingStatusPublisher = bookingStatusPublisher;
+        this.asyncPaymentCompleter = asyncPaymentCompleter;
+        this.workflowClient = workflowClient;
+        this.activityDedup = activityDedup;
     }
 
     @Override
@@ -21,40 +46,96 @@ public class BookingActivitiesImpl implements BookingActivities {
         if (booking.getStatus() != Booking.BookingStatus.PENDING) {
             throw new RuntimeException("Booking is not in PENDING state");
         }
-        // Logic to check ground availability (overlapping bookings) would go here
+        // Certain conflict, as in reserveGround; retrying cannot free the slot
+        slotAvailabilityIndex.findConflict(booking).ifPresent(conflict -> {
+            throw ApplicationFailure.newNonRetryableFailure("Slot already booked by booking " + conflict.id(),
+                    "SlotConflict");
+        });
     }
 
     @Override
-    @Transactional
-    public void reserveGround(Long bookingId) {
-        // Logic to lock the slot
-        System.out.println("Reserving ground for booking: " + bookingId);
+    public Long requestGroundReservation(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
+        Long groundId = booking.getGround().getId();
+        SlotClaim claim = new SlotClaim(bookingId, Activity.getExecutionContext().getInfo().getWorkflowId(),
+                booking.getStartTime(), booking.getEndTime());
+
+        GroundReservationWorkflow ground = workflowClient.newWorkflowStub(GroundReservationWorkflow.class,
+                WorkflowOptions.newBuilder()
+                        .setTaskQueue(BookingWorkflow.TASK_QUEUE)
+                        .setWorkflowId(GroundReservationWorkflow.workflowIdFor(groundId))
+                        .build());
+        BatchRequest request = workflowClient.newSignalWithStartRequest();
+        request.add(ground::run, groundId, null);
+        request.add(ground::requestReservation, claim);
+        workflowClient.signalWithStart(request);
+        return groundId;
     }
 
     @Override
-    public void processPayment(Long bookingId) {
-        // Mock payment processing
-        System.out.println("Processing payment for booking: " + bookingId);
-        try {
-            // Simulate payment processing delay
-            Thread.sleep(3000);
+    public void reserveGround(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
 
-            Booking booking = bookingRepository.findById(bookingId).get();
-            booking.setPaymentSettled(true);
-            bookingRepository.save(booking);
+        // The engine commits the claim itself while holding the ground's lock
+        SlotReservationEngine.Result result = slotReservationEngine.reserve(booking);
+        switch (result.outcome()) {
+            case RESERVED -> System.out.println("Ground reserved for booking: " + bookingId);
+            // Someone else holds the slot; retrying cannot help
+            case CONFLICT -> throw ApplicationFailure.newNonRetryableFailure(
+                    "Slot already reserved by booking " + result.conflictingBookingId(), "SlotConflict");
+            case BUSY -> throw new RuntimeException("Ground is busy, retrying reservation for booking: " + bookingId);
+            case NOT_PENDING -> throw ApplicationFailure.newNonRetryableFailure(
+                    "Booking " + bookingId + " is no longer pending", "HoldExpired");
+        }
+    }
 
-            System.out.println("Payment settled for booking: " + bookingId);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    @Override
+    public void processPayment(Long bookingId) {
+        // A retry after the charge settled must not charge or write again
+        Optional<ActivityDedup.Key> key = activityDedup.currentKey();
+        if (key.isPresent() && activityDedup.isCompleted(key.get())) {
+            return;
+        }
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
+        if (Boolean.TRUE.equals(booking.getPaymentSettled())) {
+            return;
         }
+        // Don't charge for a slot that is already gone
+        if (booking.getStatus() != Booking.BookingStatus.PENDING) {
+            throw ApplicationFailure.newNonRetryableFailure(
+                    "Booking " + bookingId + " is no longer pending", "HoldExpired");
+        }
+        System.out.println("Processing payment for booking: " + bookingId);
+        // Completed by the gateway callback; this worker thread is free as soon as we return
+        double amount = booking.getTotalAmount() != null ? booking.getTotalAmount() : 0;
+        asyncPaymentCompleter.charge(new PaymentRequest("booking-" + bookingId, amount, "Booking " + bookingId),
+                () -> {
+                    bookingRepository.markPaymentSettled(java.util.List.of(bookingId));
+                    key.ifPresent(activityDedup::recordCompleted);
+                    System.out.println("Payment settled for booking: " + bookingId);
+                });
     }
 
     @Override
     @Transactional
     public void confirmBooking(Long bookingId) {
+        // Without this a retry after a committed confirm would find the booking no longer pending
+        Optional<ActivityDedup.Key> key = activityDedup.currentKey();
+        if (key.isPresent() && activityDedup.isCompleted(key.get())) {
+            return;
+        }
+        // The slot hold may have lapsed while the workflow ran; SlotHoldManager has failed it then
+        if (bookingRepository.confirmPending(java.util.List.of(bookingId)) == 0) {
+            throw ApplicationFailure.newNonRetryableFailure(
+                    "Booking " + bookingId + " is no longer pending", "HoldExpired");
+        }
+        key.ifPresent(activityDedup::recordCompleted);
         Booking booking = bookingRepository.findById(bookingId).get();
-        booking.setStatus(Booking.BookingStatus.CONFIRMED);
-        bookingRepository.save(booking);
+        slotAvailabilityIndex.record(booking);
+        bookingStatusPublisher.publish(bookingId, Booking.BookingStatus.CONFIRMED, null);
         System.out.println("Booking confirmed: " + bookingId);
     }
 
@@ -65,7 +146,27 @@ public class BookingActivitiesImpl implements BookingActivities {
         if (booking != null) {
             booking.setStatus(Booking.BookingStatus.FAILED);
             bookingRepository.save(booking);
+            slotAvailabilityIndex.record(booking);
+            bookingStatusPublisher.publish(bookingId, Booking.BookingStatus.FAILED, reason);
         }
         System.out.println("Booking failed: " + bookingId + " Reason: " + reason);
     }
+
+    @Override
+    public void refundPayment(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found: " + bookingId));
+        // Nothing taken, already given back, or confirmed after all
+        if (!Boolean.TRUE.equals(booking.getPaymentSettled())
+                || booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+            return;
+        }
+        System.out.println("Refunding payment for booking: " + bookingId);
+        double amount = booking.getTotalAmount() != null ? booking.getTotalAmount() : 0;
+        asyncPaymentCompleter.refund(
+                new PaymentRequest("booking-" + bookingId, amount, "Refund for booking " + bookingId), () -> {
+                    bookingRepository.markPaymentRefunded(java.util.List.of(bookingId));
+                    System.out.println("Payment refunded for booking: " + bookingId);
+                });
+    }
 }
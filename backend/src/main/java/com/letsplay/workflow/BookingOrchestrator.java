@@ -0,0 +1,26 @@
+package com.letsplay.workflow;
+
+/**
+ * Takes a newly created booking or booking series through validate, reserve, pay and confirm.
+ *
+ * Picked per environment with {@code booking.orchestration}: {@code temporal} (the default) starts
+ * Temporal workflows through {@link WorkflowOutboxDispatcher}, {@code in-process} runs the same
+ * steps inside this JVM with {@link InProcessBookingPipeline} and needs no Temporal server.
+ */
+public interface BookingOrchestrator {
+
+    /**
+     * Must be called inside the transaction that creates the booking; processing starts once that
+     * transaction commits.
+     */
+    void enqueue(Long bookingId);
+
+    // Same as enqueue, for all occurrences of a series at once
+    void enqueueSeries(Long seriesId);
+
+    /**
+     * Live progress of a single booking, or empty when this orchestrator cannot tell (not started
+     * yet, part of a series, orchestrator unreachable) and the caller should go by the booking row.
+     */
+    java.util.Optional<BookingProgress> progress(Long bookingId);
+}
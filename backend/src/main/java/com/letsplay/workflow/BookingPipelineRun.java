@@ -0,0 +1,135 @@
+package com.letsplay.workflow;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Step log of one booking or booking series processed by {@link InProcessBookingPipeline}. The row is
+ * written in the same transaction as the booking and moved to the next step as each step commits,
+ * so after a restart the run resumes at the step it had reached.
+ */
+@Entity
+@Table(name = "booking_pipeline_runs", indexes = @Index(name = "idx_booking_pipeline_runs_step", columnList = "step"))
+public class BookingPipelineRun {
+
+    public enum Kind {
+        BOOKING,
+        BOOKING_SERIES
+    }
+
+    public enum Step {
+        VALIDATE,
+        RESERVE,
+        PAYMENT,
+        CONFIRM,
+        DONE,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // The booking id, or the series id for BOOKING_SERIES runs
+    @Column(nullable = false)
+    private Long targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Step step;
+
+    // Failed attempts of the current step
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public BookingPipelineRun() {
+    }
+
+    public BookingPipelineRun(Kind kind, Long targetId) {
+        this.kind = kind;
+        this.targetId = targetId;
+        // A series validates each occurrence as part of reserving it
+        this.step = kind == Kind.BOOKING ? Step.VALIDATE : Step.RESERVE;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public boolean isFinished() {
+        return step == Step.DONE || step == Step.FAILED;
+    }
+
+    public void advance(Step next) {
+        this.step = next;
+        this.attempts = 0;
+        this.lastError = null;
+        this.updatedAt = LocalDateTime.now();
+        this.nextAttemptAt = this.updatedAt;
+    }
+
+    public void recordFailure(String error, LocalDateTime retryAt) {
+        this.attempts++;
+        this.lastError = truncate(error);
+        this.updatedAt = LocalDateTime.now();
+        this.nextAttemptAt = retryAt;
+    }
+
+    public void fail(String reason) {
+        this.step = Step.FAILED;
+        this.lastError = truncate(reason);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public Step getStep() {
+        return step;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
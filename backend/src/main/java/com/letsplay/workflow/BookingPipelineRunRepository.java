@@ -0,0 +1,14 @@
+package com.letsplay.workflow;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingPipelineRunRepository extends JpaRepository<BookingPipelineRun, Long> {
+
+    Optional<BookingPipelineRun> findFirstByKindAndTargetIdOrderByIdDesc(BookingPipelineRun.Kind kind, Long targetId);
+
+    List<BookingPipelineRun> findByStepNotIn(Collection<BookingPipelineRun.Step> steps);
+}
@@ -0,0 +1,44 @@
+package com.letsplay.workflow;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.letsplay.booking.Booking;
+
+/**
+ * Where a booking is in validate, reserve, pay and confirm. {@code failureReason} is set for FAILED.
+ */
+public record BookingProgress(Stage stage, String failureReason) {
+
+    public enum Stage {
+        // Created, processing not started yet
+        QUEUED,
+        VALIDATING,
+        RESERVING,
+        PAYING,
+        CONFIRMING,
+        CONFIRMED,
+        FAILED
+    }
+
+    public static BookingProgress of(Stage stage) {
+        return new BookingProgress(stage, null);
+    }
+
+    public static BookingProgress failed(String reason) {
+        return new BookingProgress(Stage.FAILED, reason);
+    }
+
+    // Best guess from the booking row, for bookings no orchestrator can report on
+    public static BookingProgress of(Booking booking) {
+        return switch (booking.getStatus()) {
+            case PENDING -> of(Boolean.TRUE.equals(booking.getSlotReserved()) ? Stage.PAYING : Stage.QUEUED);
+            case CONFIRMED -> of(Stage.CONFIRMED);
+            case FAILED -> failed(null);
+            case CANCELLED -> failed("Cancelled");
+        };
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return stage == Stage.CONFIRMED || stage == Stage.FAILED;
+    }
+}
@@ -0,0 +1,25 @@
+package com.letsplay.workflow;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityMethod;
+
+import java.util.List;
+
+@ActivityInterface
+public interface BookingSeriesActivities {
+    @ActivityMethod
+    List<Long> getSeriesBookingIds(Long seriesId);
+
+    @ActivityMethod
+    void processSeriesPayment(Long seriesId, List<Long> bookingIds);
+
+    @ActivityMethod
+    void confirmSeries(Long seriesId, List<Long> bookingIds);
+
+    @ActivityMethod
+    void markSeriesFailed(Long seriesId, List<Long> bookingIds, String reason);
+
+    /** Refunds the share of the series charge paid for occurrences that did not get confirmed. */
+    @ActivityMethod
+    void refundUnconfirmed(Long seriesId, List<Long> bookingIds);
+}
@@ -0,0 +1,119 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.BookingSeriesRepository;
+import com.letsplay.booking.BookingStatusPublisher;
+import com.letsplay.booking.SlotAvailabilityIndex;
+import com.letsplay.payment.PaymentRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class BookingSeriesActivitiesImpl implements BookingSeriesActivities {
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final BookingStatusPublisher bookingStatusPublisher;
+    private final AsyncPaymentCompleter asyncPaymentCompleter;
+    private final ActivityDedup activityDedup;
+
+    public BookingSeriesActivitiesImpl(BookingRepository bookingRepository,
+            BookingSeriesRepository bookingSeriesRepository, SlotAvailabilityIndex slotAvailabilityIndex,
+            BookingStatusPublisher bookingStatusPublisher, AsyncPaymentCompleter asyncPaymentCompleter,
+            ActivityDedup activityDedup) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.bookingStatusPublisher = bookingStatusPublisher;
+        this.asyncPaymentCompleter = asyncPaymentCompleter;
+        this.activityDedup = activityDedup;
+    }
+
+    @Override
+    public List<Long> getSeriesBookingIds(Long seriesId) {
+        return bookingRepository.findIdsBySeriesId(seriesId);
+    }
+
+    @Override
+    public void processSeriesPayment(Long seriesId, List<Long> bookingIds) {
+        Optional<ActivityDedup.Key> key = activityDedup.currentKey();
+        if (key.isPresent() && activityDedup.isCompleted(key.get())) {
+            return;
+        }
+        // One charge for the whole series
+        System.out.println("Processing payment for booking series: " + seriesId);
+        double amount = bookingRepository.findAllById(bookingIds).stream()
+                .mapToDouble(booking -> booking.getTotalAmount() != null ? booking.getTotalAmount() : 0)
+                .sum();
+        asyncPaymentCompleter.charge(
+                new PaymentRequest("booking-series-" + seriesId, amount, "Booking series " + seriesId), () -> {
+                    bookingRepository.markPaymentSettled(bookingIds);
+                    key.ifPresent(activityDedup::recordCompleted);
+                    System.out.println("Payment settled for booking series: " + seriesId);
+                });
+    }
+
+    @Override
+    @Transactional
+    public void confirmSeries(Long seriesId, List<Long> bookingIds) {
+        // A retry after a committed confirm would otherwise count 0 confirmations and fail the series
+        Optional<ActivityDedup.Key> key = activityDedup.currentKey();
+        if (key.isPresent() && activityDedup.isCompleted(key.get())) {
+            return;
+        }
+        // Occurrences whose hold lapsed were already failed by SlotHoldManager and stay failed
+        int confirmed = bookingRepository.confirmPending(bookingIds);
+        for (Booking booking : bookingRepository.findAllById(bookingIds)) {
+            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+                slotAvailabilityIndex.record(booking);
+                bookingStatusPublisher.publish(booking.getId(), Booking.BookingStatus.CONFIRMED, null);
+            }
+        }
+        bookingSeriesRepository.updateStatus(seriesId,
+                confirmed > 0 ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.FAILED);
+        key.ifPresent(activityDedup::recordCompleted);
+        System.out.println("Booking series confirmed: " + seriesId + " (" + confirmed + " bookings)");
+    }
+
+    @Override
+    @Transactional
+    public void markSeriesFailed(Long seriesId, List<Long> bookingIds, String reason) {
+        updateAll(bookingIds, Booking.BookingStatus.FAILED, reason);
+        bookingSeriesRepository.updateStatus(seriesId, Booking.BookingStatus.FAILED);
+        System.out.println("Booking series failed: " + seriesId + " Reason: " + reason);
+    }
+
+    @Override
+    public void refundUnconfirmed(Long seriesId, List<Long> bookingIds) {
+        List<Booking> unconfirmed = bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> Boolean.TRUE.equals(booking.getPaymentSettled())
+                        && booking.getStatus() != Booking.BookingStatus.CONFIRMED)
+                .toList();
+        if (unconfirmed.isEmpty()) {
+            return;
+        }
+        List<Long> refunded = unconfirmed.stream().map(Booking::getId).toList();
+        double amount = unconfirmed.stream()
+                .mapToDouble(booking -> booking.getTotalAmount() != null ? booking.getTotalAmount() : 0)
+                .sum();
+        System.out.println("Refunding " + refunded.size() + " unconfirmed bookings of series: " + seriesId);
+        asyncPaymentCompleter.refund(
+                new PaymentRequest("booking-series-" + seriesId, amount, "Refund for booking series " + seriesId),
+                () -> bookingRepository.markPaymentRefunded(refunded));
+    }
+
+    private void updateAll(List<Long> bookingIds, Booking.BookingStatus status, String reason) {
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+        for (Booking booking : bookings) {
+            booking.setStatus(status);
+            slotAvailabilityIndex.record(booking);
+            bookingStatusPublisher.publish(booking.getId(), status, reason);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+}
@@ -0,0 +1,10 @@
+package com.letsplay.workflow;
+
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+@WorkflowInterface
+public interface BookingSeriesWorkflow {
+    @WorkflowMethod
+    void processSeries(Long seriesId);
+}
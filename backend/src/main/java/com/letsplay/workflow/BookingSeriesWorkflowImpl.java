@@ -0,0 +1,69 @@
+package com.letsplay.workflow;
+
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.workflow.Workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processes every occurrence of a booking series in one workflow. Each occurrence is validated and
+ * reserved on its own, so one lost slot fails only that occurrence; payment and confirmation are
+ * then done once for all reserved occurrences.
+ */
+public class BookingSeriesWorkflowImpl implements BookingSeriesWorkflow {
+
+    private final ActivityOptions options = ActivityOptions.newBuilder()
+            .setStartToCloseTimeout(Duration.ofMinutes(1))
+            .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(3).build())
+            .build();
+
+    private final BookingActivities bookingActivities = Workflow.newActivityStub(BookingActivities.class, options);
+    private final BookingSeriesActivities seriesActivities = Workflow.newActivityStub(BookingSeriesActivities.class,
+            options);
+    // See BookingWorkflowImpl
+    private final BookingSeriesActivities refunds = Workflow.newActivityStub(BookingSeriesActivities.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofMinutes(1))
+                    .setScheduleToCloseTimeout(Duration.ofDays(1))
+                    .build());
+
+    @Override
+    public void processSeries(Long seriesId) {
+        List<Long> reserved = new ArrayList<>();
+        for (Long bookingId : seriesActivities.getSeriesBookingIds(seriesId)) {
+            try {
+                bookingActivities.validateBooking(bookingId);
+                bookingActivities.reserveGround(bookingId);
+                reserved.add(bookingId);
+            } catch (ActivityFailure e) {
+                String reason = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                bookingActivities.markBookingFailed(bookingId, reason);
+            }
+        }
+
+        if (reserved.isEmpty()) {
+            seriesActivities.markSeriesFailed(seriesId, reserved, "No occurrence could be reserved");
+            return;
+        }
+        try {
+            seriesActivities.processSeriesPayment(seriesId, reserved);
+            seriesActivities.confirmSeries(seriesId, reserved);
+        } catch (Exception e) {
+            seriesActivities.markSeriesFailed(seriesId, reserved, e.getMessage());
+            refundUnconfirmed(seriesId, reserved);
+            throw e;
+        }
+        // Occurrences whose hold lapsed during payment were charged but are not confirmed
+        refundUnconfirmed(seriesId, reserved);
+    }
+
+    private void refundUnconfirmed(Long seriesId, List<Long> reserved) {
+        if (Workflow.getVersion(BookingWorkflowImpl.REFUND_CHANGE_ID, Workflow.DEFAULT_VERSION, 1) >= 1) {
+            refunds.refundUnconfirmed(seriesId, reserved);
+        }
+    }
+}
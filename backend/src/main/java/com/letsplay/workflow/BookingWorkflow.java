@@ -1,10 +1,31 @@
 package com.letsplay.workflow;
 
+import io.temporal.workflow.QueryMethod;
+import io.temporal.workflow.SignalMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
 @WorkflowInterface
 public interface BookingWorkflow {
+    // Shared by the booking and booking series workflows and their activities
+    String TASK_QUEUE = "BookingTaskQueue";
+
+    /**
+     * Modes are taken as arguments rather than read from configuration so that each run keeps the
+     * modes it started with on replay; runs started before a flag existed decode it as false.
+     *
+     * @param localActivities   run the short database steps as local activities (see
+     *                          {@link BookingWorkflowImpl})
+     * @param serializeByGround have the ground's {@link GroundReservationWorkflow} decide the slot
+     *                          before it is claimed
+     */
     @WorkflowMethod
-    void processBooking(Long bookingId);
+    void processBooking(Long bookingId, boolean localActivities, boolean serializeByGround);
+
+    // Answered from workflow state, so checking on a pending booking does not touch the database
+    @QueryMethod
+    BookingProgress getProgress();
+
+    @SignalMethod
+    void reservationDecided(ReservationDecision decision);
 }
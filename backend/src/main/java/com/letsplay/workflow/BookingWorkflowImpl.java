@@ -1,34 +1,112 @@
 package com.letsplay.workflow;
 
 import io.temporal.activity.ActivityOptions;
+import io.temporal.activity.LocalActivityOptions;
 import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.workflow.Async;
 import io.temporal.workflow.Workflow;
 
 import java.time.Duration;
 
 public class BookingWorkflowImpl implements BookingWorkflow {
 
+    private static final Duration RESERVATION_DECISION_TIMEOUT = Duration.ofMinutes(1);
+    static final String REFUND_CHANGE_ID = "refund-unconfirmed";
+
     private final BookingActivities activities = Workflow.newActivityStub(BookingActivities.class,
             ActivityOptions.newBuilder()
                     .setStartToCloseTimeout(Duration.ofMinutes(1))
                     .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(3).build())
                     .build());
 
+    // validate, reserve, confirm and markFailed are single-row updates: as local activities they run
+    // inside the workflow task instead of a task queue round trip each, and only leave a marker in
+    // history. Payment stays a regular activity since it completes asynchronously.
+    private final BookingActivities localActivities = Workflow.newLocalActivityStub(BookingActivities.class,
+            LocalActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofSeconds(10))
+                    .setScheduleToCloseTimeout(Duration.ofMinutes(1))
+                    .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(3).build())
+                    .build());
+
+    // Money must go back even if the gateway is down for a while; only a declined refund stops it
+    private final BookingActivities refunds = Workflow.newActivityStub(BookingActivities.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofMinutes(1))
+                    .setScheduleToCloseTimeout(Duration.ofDays(1))
+                    .build());
+
+    private ReservationDecision reservationDecision;
+    private BookingProgress progress = BookingProgress.of(BookingProgress.Stage.VALIDATING);
+
     @Override
-    public void processBooking(Long bookingId) {
+    public void processBooking(Long bookingId, boolean localActivities, boolean serializeByGround) {
         // Set Search Attributes for Advanced Visibility (Labs)
         java.util.Map<String, Object> attributes = new java.util.HashMap<>();
         attributes.put("CustomKeywordField", "booking-" + bookingId);
         Workflow.upsertSearchAttributes(attributes);
 
+        BookingActivities steps = localActivities ? this.localActivities : activities;
+        Long groundId = null;
+        boolean charging = false;
         try {
-            activities.validateBooking(bookingId);
-            activities.reserveGround(bookingId);
+            steps.validateBooking(bookingId);
+            progress = BookingProgress.of(BookingProgress.Stage.RESERVING);
+            if (serializeByGround) {
+                groundId = steps.requestGroundReservation(bookingId);
+                awaitReservation();
+            }
+            // With a ground decision in hand this only records the claim
+            steps.reserveGround(bookingId);
+            progress = BookingProgress.of(BookingProgress.Stage.PAYING);
+            charging = true;
             activities.processPayment(bookingId);
-            activities.confirmBooking(bookingId);
+            progress = BookingProgress.of(BookingProgress.Stage.CONFIRMING);
+            steps.confirmBooking(bookingId);
+            progress = BookingProgress.of(BookingProgress.Stage.CONFIRMED);
         } catch (Exception e) {
-            activities.markBookingFailed(bookingId, e.getMessage());
+            progress = BookingProgress.failed(reasonOf(e));
+            if (groundId != null) {
+                GroundReservationWorkflow ground = Workflow.newExternalWorkflowStub(GroundReservationWorkflow.class,
+                        GroundReservationWorkflow.workflowIdFor(groundId));
+                Async.procedure(ground::release, bookingId).exceptionally(failure -> null);
+            }
+            steps.markBookingFailed(bookingId, progress.failureReason());
+            // The charge may have gone through before the failure (e.g. the hold lapsed meanwhile)
+            if (charging && Workflow.getVersion(REFUND_CHANGE_ID, Workflow.DEFAULT_VERSION, 1) >= 1) {
+                refunds.refundPayment(bookingId);
+            }
             throw e;
         }
     }
+
+    @Override
+    public BookingProgress getProgress() {
+        return progress;
+    }
+
+    @Override
+    public void reservationDecided(ReservationDecision decision) {
+        this.reservationDecision = decision;
+    }
+
+    private void awaitReservation() {
+        if (!Workflow.await(RESERVATION_DECISION_TIMEOUT, () -> reservationDecision != null)) {
+            throw ApplicationFailure.newNonRetryableFailure("No reservation decision from the ground",
+                    "ReservationTimeout");
+        }
+        if (!reservationDecision.granted()) {
+            throw ApplicationFailure.newNonRetryableFailure(
+                    "Slot already reserved by booking " + reservationDecision.conflictingBookingId(),
+                    "SlotConflict");
+        }
+    }
+
+    // ActivityFailure only names the activity; the application failure underneath says what went wrong
+    private static String reasonOf(Exception e) {
+        Throwable failure = e instanceof ActivityFailure && e.getCause() != null ? e.getCause() : e;
+        return failure instanceof ApplicationFailure application ? application.getOriginalMessage() : failure.getMessage();
+    }
 }
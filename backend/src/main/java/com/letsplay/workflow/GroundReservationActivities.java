@@ -0,0 +1,12 @@
+package com.letsplay.workflow;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityMethod;
+
+import java.util.List;
+
+@ActivityInterface
+public interface GroundReservationActivities {
+    @ActivityMethod
+    List<SlotClaim> loadClaims(Long groundId);
+}
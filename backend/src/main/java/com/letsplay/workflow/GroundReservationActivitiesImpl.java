@@ -0,0 +1,32 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.BookedSlot;
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class GroundReservationActivitiesImpl implements GroundReservationActivities {
+
+    private static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final BookingRepository bookingRepository;
+
+    public GroundReservationActivitiesImpl(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public List<SlotClaim> loadClaims(Long groundId) {
+        return bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(groundId, OPEN_END,
+                        LocalDateTime.now(), List.of(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED))
+                .stream()
+                .map(BookedSlot::of)
+                .filter(BookedSlot::isClaimed)
+                .map(slot -> new SlotClaim(slot.id(), null, slot.startTime(), slot.endTime()))
+                .toList();
+    }
+}
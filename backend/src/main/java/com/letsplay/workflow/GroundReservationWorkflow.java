@@ -0,0 +1,34 @@
+package com.letsplay.workflow;
+
+import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+import java.util.List;
+
+/**
+ * Long-lived workflow per ground that decides competing reservation requests one at a time.
+ * Booking workflows send their claim with {@link #requestReservation} and get a
+ * {@link BookingWorkflow#reservationDecided} signal back.
+ */
+@WorkflowInterface
+public interface GroundReservationWorkflow {
+
+    static String workflowIdFor(Long groundId) {
+        return "ground-" + groundId;
+    }
+
+    /**
+     * @param held claims carried over from the previous run, or null on first start to load the
+     *             ground's claimed bookings from the database
+     */
+    @WorkflowMethod
+    void run(Long groundId, List<SlotClaim> held);
+
+    @SignalMethod
+    void requestReservation(SlotClaim claim);
+
+    // Frees the booking's slot, e.g. after its payment failed or its hold expired
+    @SignalMethod
+    void release(Long bookingId);
+}
@@ -0,0 +1,137 @@
+package com.letsplay.workflow;
+
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Workflow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Holds every future claim on one ground in memory and decides new requests against it.
+ *
+ * Signals are queued and applied in arrival order, so the outcome depends only on history and
+ * replays identically. All requests that arrive together are decided in the same workflow task and
+ * their replies go out as one batch of signals. Claims never overlap each other, so they are kept in
+ * a map ordered by start time and a request only has to be compared with its two neighbours.
+ * History is bounded by continuing as new with the remaining claims once it grows past a threshold.
+ */
+public class GroundReservationWorkflowImpl implements GroundReservationWorkflow {
+
+    static final int DEFAULT_MAX_HISTORY_EVENTS = 2000;
+
+    private final GroundReservationActivities activities = Workflow.newActivityStub(
+            GroundReservationActivities.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofMinutes(1))
+                    .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(3).build())
+                    .build());
+
+    private final int maxHistoryEvents;
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final TreeMap<LocalDateTime, SlotClaim> claimsByStart = new TreeMap<>();
+    private final Map<Long, SlotClaim> claimsByBooking = new HashMap<>();
+
+    public GroundReservationWorkflowImpl() {
+        this(DEFAULT_MAX_HISTORY_EVENTS);
+    }
+
+    GroundReservationWorkflowImpl(int maxHistoryEvents) {
+        this.maxHistoryEvents = maxHistoryEvents;
+    }
+
+    @Override
+    public void run(Long groundId, List<SlotClaim> held) {
+        for (SlotClaim claim : held != null ? held : activities.loadClaims(groundId)) {
+            add(claim);
+        }
+
+        while (true) {
+            Workflow.await(() -> !pending.isEmpty());
+            pruneEnded();
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+            // Every signal received so far has been applied, so nothing is lost by starting over
+            if (Workflow.getInfo().getHistoryLength() > maxHistoryEvents) {
+                List<SlotClaim> carried = new ArrayList<>();
+                for (SlotClaim claim : claimsByStart.values()) {
+                    carried.add(new SlotClaim(claim.bookingId(), null, claim.startTime(), claim.endTime()));
+                }
+                Workflow.continueAsNew(groundId, carried);
+            }
+        }
+    }
+
+    @Override
+    public void requestReservation(SlotClaim claim) {
+        pending.add(() -> decide(claim));
+    }
+
+    @Override
+    public void release(Long bookingId) {
+        pending.add(() -> remove(bookingId));
+    }
+
+    private void decide(SlotClaim claim) {
+        ReservationDecision decision;
+        SlotClaim existing = claimsByBooking.get(claim.bookingId());
+        if (existing != null) {
+            // Repeated request from an activity retry
+            decision = new ReservationDecision(true, null);
+        } else {
+            SlotClaim conflict = findConflict(claim);
+            if (conflict == null) {
+                add(claim);
+                decision = new ReservationDecision(true, null);
+            } else {
+                decision = new ReservationDecision(false, conflict.bookingId());
+            }
+        }
+        BookingWorkflow booking = Workflow.newExternalWorkflowStub(BookingWorkflow.class, claim.workflowId());
+        // Not awaited: one slow or finished booking workflow must not hold up the rest of the batch
+        Async.procedure(booking::reservationDecided, decision).exceptionally(e -> null);
+    }
+
+    private SlotClaim findConflict(SlotClaim claim) {
+        Map.Entry<LocalDateTime, SlotClaim> before = claimsByStart.floorEntry(claim.startTime());
+        if (before != null && before.getValue().overlaps(claim)) {
+            return before.getValue();
+        }
+        Map.Entry<LocalDateTime, SlotClaim> after = claimsByStart.higherEntry(claim.startTime());
+        if (after != null && after.getValue().overlaps(claim)) {
+            return after.getValue();
+        }
+        return null;
+    }
+
+    private void add(SlotClaim claim) {
+        claimsByStart.put(claim.startTime(), claim);
+        claimsByBooking.put(claim.bookingId(), claim);
+    }
+
+    private void remove(Long bookingId) {
+        SlotClaim claim = claimsByBooking.remove(bookingId);
+        if (claim != null) {
+            claimsByStart.remove(claim.startTime());
+        }
+    }
+
+    private void pruneEnded() {
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(Workflow.currentTimeMillis()),
+                ZoneId.systemDefault());
+        while (!claimsByStart.isEmpty() && !claimsByStart.firstEntry().getValue().endTime().isAfter(now)) {
+            remove(claimsByStart.firstEntry().getValue().bookingId());
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.common.TransactionCallbacks;
+import com.letsplay.payment.PaymentGateway;
+import com.letsplay.payment.PaymentRequest;
+import com.letsplay.payment.PaymentResult;
+import io.temporal.failure.ApplicationFailure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bookings through the same steps as {@link BookingWorkflowImpl} and
+ * {@link BookingSeriesWorkflowImpl}, but on an executor in this JVM instead of through Temporal.
+ *
+ * Each step reuses the activity implementation and commits together with the move to the next step
+ * in its {@link BookingPipelineRun}, so the run is durable without a workflow server: on startup every
+ * unfinished run is resumed where it stopped. Failures are retried with exponential backoff like the
+ * workflows' retry policy, and non-retryable failures (conflict, declined payment, expired hold) fail
+ * the booking straight away. Payment is charged asynchronously and does not hold a pipeline thread.
+ *
+ * Meant for single-instance deployments: runs are not claimed, so two instances would both resume them.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.orchestration", havingValue = "in-process")
+public class InProcessBookingPipeline implements BookingOrchestrator {
+
+    private static final List<BookingPipelineRun.Step> FINISHED =
+            List.of(BookingPipelineRun.Step.DONE, BookingPipelineRun.Step.FAILED);
+
+    private final BookingPipelineRunRepository runRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingActivitiesImpl bookingActivities;
+    private final BookingSeriesActivitiesImpl seriesActivities;
+    private final PaymentGateway paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final ScheduledExecutorService executor;
+
+    public InProcessBookingPipeline(BookingPipelineRunRepository runRepository, BookingRepository bookingRepository,
+            BookingActivitiesImpl bookingActivities, BookingSeriesActivitiesImpl seriesActivities,
+            PaymentGateway paymentGateway, PlatformTransactionManager transactionManager,
+            @Value("${booking.pipeline.threads:16}") int threads,
+            @Value("${booking.pipeline.max-attempts:3}") int maxAttempts,
+            @Value("${booking.pipeline.initial-backoff-ms:1000}") long initialBackoffMillis) {
+        this.runRepository = runRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingActivities = bookingActivities;
+        this.seriesActivities = seriesActivities;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "booking-pipeline-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void enqueue(Long bookingId) {
+        start(new BookingPipelineRun(BookingPipelineRun.Kind.BOOKING, bookingId));
+    }
+
+    @Override
+    public void enqueueSeries(Long seriesId) {
+        start(new BookingPipelineRun(BookingPipelineRun.Kind.BOOKING_SERIES, seriesId));
+    }
+
+    @Override
+    public Optional<BookingProgress> progress(Long bookingId) {
+        return runRepository.findFirstByKindAndTargetIdOrderByIdDesc(BookingPipelineRun.Kind.BOOKING, bookingId)
+                .map(run -> switch (run.getStep()) {
+                    case VALIDATE -> BookingProgress.of(BookingProgress.Stage.VALIDATING);
+                    case RESERVE -> BookingProgress.of(BookingProgress.Stage.RESERVING);
+                    case PAYMENT -> BookingProgress.of(BookingProgress.Stage.PAYING);
+                    case CONFIRM -> BookingProgress.of(BookingProgress.Stage.CONFIRMING);
+                    case DONE -> BookingProgress.of(BookingProgress.Stage.CONFIRMED);
+                    case FAILED -> BookingProgress.failed(run.getLastError());
+                });
+    }
+
+    private void start(BookingPipelineRun run) {
+        Long runId = runRepository.save(run).getId();
+        TransactionCallbacks.afterCommit(() -> executor.execute(() -> drive(runId)));
+    }
+
+    @PostConstruct
+    public void resumeUnfinished() {
+        List<BookingPipelineRun> runs = runRepository.findByStepNotIn(FINISHED);
+        for (BookingPipelineRun run : runs) {
+            long delay = Math.max(0, Duration.between(LocalDateTime.now(), run.getNextAttemptAt()).toMillis());
+            executor.schedule(() -> drive(run.getId()), delay, TimeUnit.MILLISECONDS);
+        }
+        if (!runs.isEmpty()) {
+            System.out.println("Resuming " + runs.size() + " unfinished booking pipeline runs");
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Runs cut short here are resumed from their last committed step on the next start
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void drive(Long runId) {
+        BookingPipelineRun run = runRepository.findById(runId).orElse(null);
+        while (run != null && !run.isFinished()) {
+            if (run.getStep() == BookingPipelineRun.Step.PAYMENT) {
+                // Continues from the gateway callback
+                pay(run);
+                return;
+            }
+            try {
+                run = runStep(run);
+            } catch (Exception e) {
+                handleFailure(run, e);
+                return;
+            }
+        }
+        // A confirmed single booking has nothing to give back; a series may have lost occurrences
+        if (run != null && run.getStep() == BookingPipelineRun.Step.DONE
+                && run.getKind() == BookingPipelineRun.Kind.BOOKING_SERIES) {
+            refundUnconfirmed(run);
+        }
+    }
+
+    private BookingPipelineRun runStep(BookingPipelineRun run) {
+        Long id = run.getTargetId();
+        boolean series = run.getKind() == BookingPipelineRun.Kind.BOOKING_SERIES;
+        switch (run.getStep()) {
+            case VALIDATE -> {
+                return commitStep(run, BookingPipelineRun.Step.RESERVE, () -> bookingActivities.validateBooking(id));
+            }
+            case RESERVE -> {
+                if (series) {
+                    // Each occurrence commits on its own; see reserveOccurrences
+                    if (reserveOccurrences(run)) {
+                        return commitStep(run, BookingPipelineRun.Step.PAYMENT, () -> { });
+                    }
+                    return commitFailure(run, "No occurrence could be reserved");
+                }
+                return commitStep(run, BookingPipelineRun.Step.PAYMENT, () -> bookingActivities.reserveGround(id));
+            }
+            case CONFIRM -> {
+                return commitStep(run, BookingPipelineRun.Step.DONE, series
+                        ? () -> seriesActivities.confirmSeries(id, reservedOccurrences(id))
+                        : () -> bookingActivities.confirmBooking(id));
+            }
+            default -> throw new IllegalStateException("Unexpected pipeline step " + run.getStep());
+        }
+    }
+
+    /**
+     * Validates and reserves every occurrence that is still open. Occurrences that cannot be
+     * reserved are failed on their own; a retryable error leaves its occurrence open and the whole
+     * step is retried. Returns whether any occurrence holds its slot.
+     */
+    private boolean reserveOccurrences(BookingPipelineRun run) {
+        boolean retry = false;
+        for (Booking booking : bookingRepository.findAllById(bookingRepository.findIdsBySeriesId(run.getTargetId()))) {
+            if (booking.getStatus() != Booking.BookingStatus.PENDING || Boolean.TRUE.equals(booking.getSlotReserved())) {
+                continue;
+            }
+            try {
+                bookingActivities.validateBooking(booking.getId());
+                bookingActivities.reserveGround(booking.getId());
+            } catch (Exception e) {
+                if (isRetryable(e) && run.getAttempts() + 1 < maxAttempts) {
+                    retry = true;
+                } else {
+                    bookingActivities.markBookingFailed(booking.getId(), reasonOf(e));
+                }
+            }
+        }
+        if (retry) {
+            throw new RuntimeException("Retrying occurrences of booking series " + run.getTargetId());
+        }
+        return !reservedOccurrences(run.getTargetId()).isEmpty();
+    }
+
+    private List<Long> reservedOccurrences(Long seriesId) {
+        return bookingRepository.findAllById(bookingRepository.findIdsBySeriesId(seriesId)).stream()
+                .filter(booking -> booking.getStatus() == Booking.BookingStatus.PENDING
+                        && Boolean.TRUE.equals(booking.getSlotReserved()))
+                .map(Booking::getId)
+                .sorted()
+                .toList();
+    }
+
+    private void pay(BookingPipelineRun run) {
+        Long id = run.getTargetId();
+        boolean series = run.getKind() == BookingPipelineRun.Kind.BOOKING_SERIES;
+        List<Booking> bookings;
+        try {
+            bookings = series
+                    ? bookingRepository.findAllById(reservedOccurrences(id))
+                    : List.of(bookingRepository.findById(id)
+                            .orElseThrow(() -> new RuntimeException("Booking not found: " + id)));
+        } catch (Exception e) {
+            handleFailure(run, e);
+            return;
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        if (bookings.stream().allMatch(booking -> Boolean.TRUE.equals(booking.getPaymentSettled()))) {
+            // Settled before a restart
+            afterPayment(run, ids, PaymentResult.approved(null), null);
+            return;
+        }
+
+        double amount = bookings.stream()
+                .mapToDouble(booking -> booking.getTotalAmount() != null ? booking.getTotalAmount() : 0)
+                .sum();
+        String key = series ? "booking-series-" + id : "booking-" + id;
+        String description = series ? "Booking series " + id : "Booking " + id;
+        System.out.println("Processing payment for " + description.toLowerCase());
+        paymentGateway.charge(new PaymentRequest(key, amount, description)).whenComplete((result, error) ->
+                executor.execute(() -> afterPayment(run, ids, result, error)));
+    }
+
+    private void afterPayment(BookingPipelineRun run, List<Long> bookingIds, PaymentResult result, Throwable error) {
+        try {
+            if (error != null) {
+                throw new RuntimeException("Payment outcome unknown: " + error.getMessage());
+            }
+            if (!result.approved()) {
+                throw ApplicationFailure.newNonRetryableFailure("Payment declined: " + result.declineReason(),
+                        "PaymentDeclined");
+            }
+            commitStep(run, BookingPipelineRun.Step.CONFIRM, () -> bookingRepository.markPaymentSettled(bookingIds));
+        } catch (Exception e) {
+            handleFailure(run, e);
+            return;
+        }
+        drive(run.getId());
+    }
+
+    /*
+     * Gives back what was charged for bookings of a finished run that did not get confirmed, e.g.
+     * because the hold lapsed during payment. Unlike the workflows this is not retried: a refund that
+     * fails or is cut short by a restart is only logged.
+     */
+    private void refundUnconfirmed(BookingPipelineRun run) {
+        Long id = run.getTargetId();
+        boolean series = run.getKind() == BookingPipelineRun.Kind.BOOKING_SERIES;
+        List<Booking> unconfirmed = bookingRepository.findAllById(series
+                        ? bookingRepository.findIdsBySeriesId(id)
+                        : List.of(id)).stream()
+                .filter(booking -> Boolean.TRUE.equals(booking.getPaymentSettled())
+                        && booking.getStatus() != Booking.BookingStatus.CONFIRMED)
+                .toList();
+        if (unconfirmed.isEmpty()) {
+            return;
+        }
+        List<Long> ids = unconfirmed.stream().map(Booking::getId).toList();
+        double amount = unconfirmed.stream()
+                .mapToDouble(booking -> booking.getTotalAmount() != null ? booking.getTotalAmount() : 0)
+                .sum();
+        String key = series ? "booking-series-" + id : "booking-" + id;
+        String description = "Refund for " + (series ? "booking series " : "booking ") + id;
+        System.out.println(description);
+        paymentGateway.refund(new PaymentRequest(key, amount, description)).whenComplete((result, error) -> {
+            if (error == null && result.approved()) {
+                transactionTemplate.executeWithoutResult(status -> bookingRepository.markPaymentRefunded(ids));
+            } else {
+                System.err.println(description + " failed: "
+                        + (error != null ? error.getMessage() : result.declineReason()));
+            }
+        });
+    }
+
+    private BookingPipelineRun commitStep(BookingPipelineRun run, BookingPipelineRun.Step next, Runnable step) {
+        return transactionTemplate.execute(status -> {
+            step.run();
+            run.advance(next);
+            return runRepository.save(run);
+        });
+    }
+
+    private BookingPipelineRun commitFailure(BookingPipelineRun run, String reason) {
+        BookingPipelineRun failed = transactionTemplate.execute(status -> {
+            if (run.getKind() == BookingPipelineRun.Kind.BOOKING_SERIES) {
+                seriesActivities.markSeriesFailed(run.getTargetId(), reservedOccurrences(run.getTargetId()), reason);
+            } else {
+                bookingActivities.markBookingFailed(run.getTargetId(), reason);
+            }
+            run.fail(reason);
+            return runRepository.save(run);
+        });
+        refundUnconfirmed(failed);
+        return failed;
+    }
+
+    private void handleFailure(BookingPipelineRun failed, Exception e) {
+        String reason = reasonOf(e);
+        try {
+            // The step rolled back, so go by the committed state rather than the object it may have advanced
+            BookingPipelineRun run = runRepository.findById(failed.getId()).orElseThrow();
+            if (isRetryable(e) && run.getAttempts() + 1 < maxAttempts) {
+                long backoff = initialBackoffMillis << Math.min(run.getAttempts(), 20);
+                run.recordFailure(reason, LocalDateTime.now().plusNanos(backoff * 1_000_000));
+                runRepository.save(run);
+                executor.schedule(() -> drive(run.getId()), backoff, TimeUnit.MILLISECONDS);
+            } else {
+                commitFailure(run, reason);
+            }
+        } catch (Exception failure) {
+            // Left at its current step; picked up again on the next start
+            System.err.println("Booking pipeline run " + failed.getId() + " stalled: " + failure.getMessage());
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return !(e instanceof ApplicationFailure failure && failure.isNonRetryable());
+    }
+
+    private static String reasonOf(Exception e) {
+        return e instanceof ApplicationFailure failure ? failure.getOriginalMessage() : e.getMessage();
+    }
+}
@@ -0,0 +1,5 @@
+package com.letsplay.workflow;
+
+// Reply from GroundReservationWorkflow; conflictingBookingId is set when the claim was refused
+public record ReservationDecision(boolean granted, Long conflictingBookingId) {
+}
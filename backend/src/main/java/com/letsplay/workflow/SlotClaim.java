@@ -0,0 +1,15 @@
+package com.letsplay.workflow;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking's claim on a time range, as sent to and held by {@link GroundReservationWorkflow}.
+ * {@code workflowId} names the booking workflow waiting for the decision; it is null for claims
+ * loaded from the database.
+ */
+public record SlotClaim(Long bookingId, String workflowId, LocalDateTime startTime, LocalDateTime endTime) {
+
+    public boolean overlaps(SlotClaim other) {
+        return startTime.isBefore(other.endTime) && other.startTime.isBefore(endTime);
+    }
+}
@@ -0,0 +1,214 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.BookingSeriesRepository;
+import com.letsplay.common.BoundedCache;
+import com.letsplay.common.TransactionCallbacks;
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
+import io.temporal.client.WorkflowNotFoundException;
+import io.temporal.client.WorkflowOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts booking workflows from the transactional outbox.
+ *
+ * The request thread only inserts an outbox row next to the booking; this dispatcher picks rows up
+ * in batches on a background thread, starts their workflows and deletes them. It is woken right
+ * after each booking commits and otherwise polls, so rows that failed to start (Temporal down, network
+ * blip) are retried with exponential backoff. Workflow ids are fixed per booking and duplicates are
+ * rejected, so a row dispatched twice never runs the booking twice.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.orchestration", havingValue = "temporal", matchIfMissing = true)
+public class WorkflowOutboxDispatcher implements BookingOrchestrator {
+
+    private final WorkflowOutboxRepository outboxRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final WorkflowClient workflowClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long maxBackoffMillis;
+    private final boolean localActivities;
+    private final boolean serializeByGround;
+
+    // Stubs are reused across progress polls; finished bookings are answered without asking Temporal again
+    private final BoundedCache<Long, BookingWorkflow> progressStubs = new BoundedCache<>(1024);
+    private final BoundedCache<Long, BookingProgress> finishedProgress = new BoundedCache<>(4096);
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "workflow-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+
+    public WorkflowOutboxDispatcher(WorkflowOutboxRepository outboxRepository, BookingRepository bookingRepository,
+            BookingSeriesRepository bookingSeriesRepository, WorkflowClient workflowClient, PlatformTransactionManager transactionManager,
+            @Value("${booking.outbox.batch-size:50}") int batchSize,
+            @Value("${booking.outbox.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${booking.outbox.max-backoff-ms:60000}") long maxBackoffMillis,
+            @Value("${booking.workflow.local-activities:false}") boolean localActivities,
+            @Value("${booking.workflow.ground-reservations:false}") boolean serializeByGround) {
+        this.outboxRepository = outboxRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.workflowClient = workflowClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.localActivities = localActivities;
+        this.serializeByGround = serializeByGround;
+    }
+
+    public static String workflowIdFor(Long bookingId) {
+        return "booking-" + bookingId;
+    }
+
+    public static String seriesWorkflowIdFor(Long seriesId) {
+        return "booking-series-" + seriesId;
+    }
+
+    // Queues the booking's workflow for start; the dispatcher is woken once the transaction commits
+    @Override
+    public void enqueue(Long bookingId) {
+        enqueue(new WorkflowOutboxEntry(WorkflowOutboxEntry.Kind.BOOKING, bookingId, workflowIdFor(bookingId)));
+    }
+
+    // The series is processed by a single workflow for all of its occurrences
+    @Override
+    public void enqueueSeries(Long seriesId) {
+        enqueue(new WorkflowOutboxEntry(WorkflowOutboxEntry.Kind.BOOKING_SERIES, seriesId,
+                seriesWorkflowIdFor(seriesId)));
+    }
+
+    @Override
+    public Optional<BookingProgress> progress(Long bookingId) {
+        BookingProgress finished = finishedProgress.get(bookingId);
+        if (finished != null) {
+            return Optional.of(finished);
+        }
+        try {
+            BookingWorkflow workflow = progressStubs.computeIfAbsent(bookingId,
+                    id -> workflowClient.newWorkflowStub(BookingWorkflow.class, workflowIdFor(id)));
+            BookingProgress progress = workflow.getProgress();
+            if (progress.isTerminal()) {
+                finishedProgress.put(bookingId, progress);
+                progressStubs.remove(bookingId);
+            }
+            return Optional.of(progress);
+        } catch (WorkflowNotFoundException e) {
+            // Still in the outbox, or an occurrence of a series
+            return Optional.empty();
+        } catch (Exception e) {
+            String reason = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            System.err.println("Progress query failed for booking " + bookingId + ": " + reason);
+            return Optional.empty();
+        }
+    }
+
+    private void enqueue(WorkflowOutboxEntry entry) {
+        outboxRepository.save(entry);
+        TransactionCallbacks.afterCommit(wakeUp::release);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor.submit(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUp.release();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                // A full batch means more rows are probably waiting
+                while (running && dispatchBatch() == batchSize) {
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Workflow outbox dispatch failed: " + e.getMessage());
+            }
+        }
+    }
+
+    int dispatchBatch() {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            List<WorkflowOutboxEntry> entries = outboxRepository.findDue(LocalDateTime.now(),
+                    PageRequest.of(0, batchSize));
+            for (WorkflowOutboxEntry entry : entries) {
+                if (!dispatch(entry)) {
+                    // Temporal is most likely unreachable; leave the rest for the next round
+                    return 0;
+                }
+            }
+            return entries.size();
+        });
+        return dispatched != null ? dispatched : 0;
+    }
+
+    private boolean dispatch(WorkflowOutboxEntry entry) {
+        try {
+            WorkflowOptions options = WorkflowOptions.newBuilder()
+                    .setTaskQueue(BookingWorkflow.TASK_QUEUE)
+                    .setWorkflowId(entry.getWorkflowId())
+                    .setWorkflowIdReusePolicy(WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_REJECT_DUPLICATE)
+                    .build();
+            if (entry.getKind() == WorkflowOutboxEntry.Kind.BOOKING_SERIES) {
+                BookingSeriesWorkflow workflow = workflowClient.newWorkflowStub(BookingSeriesWorkflow.class, options);
+                WorkflowClient.start(workflow::processSeries, entry.getTargetId());
+            } else {
+                BookingWorkflow workflow = workflowClient.newWorkflowStub(BookingWorkflow.class, options);
+                WorkflowClient.start(workflow::processBooking, entry.getTargetId(), localActivities,
+                        serializeByGround);
+            }
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            // Started by an earlier attempt whose cleanup did not commit
+        } catch (Exception e) {
+            // WorkflowServiceException only names the workflow; the gRPC cause says what went wrong
+            String reason = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            long backoff = Math.min(maxBackoffMillis, pollIntervalMillis << Math.min(entry.getAttempts(), 20));
+            entry.recordFailure(reason, LocalDateTime.now().plusNanos(backoff * 1_000_000));
+            System.err.println("Failed to start workflow " + entry.getWorkflowId() + ": " + reason);
+            return false;
+        }
+        if (entry.getKind() == WorkflowOutboxEntry.Kind.BOOKING_SERIES) {
+            bookingSeriesRepository.updateTemporalWorkflowId(entry.getTargetId(), entry.getWorkflowId());
+        } else {
+            bookingRepository.updateTemporalWorkflowId(entry.getTargetId(), entry.getWorkflowId());
+        }
+        outboxRepository.delete(entry);
+        return true;
+    }
+}
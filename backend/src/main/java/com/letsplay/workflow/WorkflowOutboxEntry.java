@@ -0,0 +1,92 @@
+package com.letsplay.workflow;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A booking or booking series workflow that still has to be started. Written in the same transaction
+ * as the booking and removed by {@link WorkflowOutboxDispatcher} once Temporal has accepted the workflow.
+ */
+@Entity
+@Table(name = "workflow_outbox", indexes = @Index(name = "idx_workflow_outbox_next_attempt", columnList = "nextAttemptAt"))
+public class WorkflowOutboxEntry {
+
+    public enum Kind {
+        BOOKING,
+        BOOKING_SERIES
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Rows written before series existed have no kind and are bookings
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    // The booking id, or the series id for BOOKING_SERIES rows
+    @Column(name = "booking_id", nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private String workflowId;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private int attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public WorkflowOutboxEntry() {
+    }
+
+    public WorkflowOutboxEntry(Kind kind, Long targetId, String workflowId) {
+        this.kind = kind;
+        this.targetId = targetId;
+        this.workflowId = workflowId;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public void recordFailure(String error, LocalDateTime retryAt) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        this.nextAttemptAt = retryAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind != null ? kind : Kind.BOOKING;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,22 @@
+package com.letsplay.workflow;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WorkflowOutboxRepository extends JpaRepository<WorkflowOutboxEntry, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2), so several dispatchers can drain the outbox side by side
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM WorkflowOutboxEntry e WHERE e.nextAttemptAt <= :now ORDER BY e.id")
+    List<WorkflowOutboxEntry> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+}
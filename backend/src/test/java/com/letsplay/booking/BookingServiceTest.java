@@ -0,0 +1,63 @@
+package com.letsplay.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookingServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    @Test
+    public void testPublicFeedPagesPastGameAtMidnight() {
+        // The first page ends on a game starting exactly at the start of the window
+        List<BookingSummary> games = List.of(game(1L, DAY.atStartOfDay()), game(2L, DAY.atStartOfDay()),
+                game(3L, DAY.atTime(18, 0)));
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findOpenPublicGames(any(), any(), anyLong(), any(), anyLong(), anyString(), any()))
+                .thenAnswer(call -> after(games, call.getArgument(1), call.getArgument(2), call.getArgument(6)));
+        BookingService service = new BookingService(bookingRepository, null, null, null);
+
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        for (int request = 0; request < 5; request++) {
+            KeysetPage<BookingSummary> page = service.getPublicBookings(null, null, DAY, null, cursor, 2);
+            page.items().forEach(game -> seen.add(game.id()));
+            cursor = page.nextCursor();
+            if (cursor == null) {
+                break;
+            }
+        }
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), seen);
+        Assertions.assertNull(cursor);
+    }
+
+    // What the keyset query returns: rows strictly after (time, id), in order, up to the page size
+    private static List<BookingSummary> after(List<BookingSummary> games, LocalDateTime time, Long id,
+            Pageable pageable) {
+        return games.stream()
+                .filter(game -> game.startTime().isAfter(time)
+                        || (game.startTime().equals(time) && game.id() > id))
+                .sorted(Comparator.comparing(BookingSummary::startTime).thenComparing(BookingSummary::id))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private static BookingSummary game(Long id, LocalDateTime start) {
+        return new BookingSummary(id, null, null, start, start.plusHours(1), Booking.BookingStatus.CONFIRMED, true,
+                10, 1, 0.0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.letsplay.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A second publisher with a broker of its own stands in for another API node; it must hear the
+ * transitions published on this one.
+ */
+@SpringBootTest
+public class BookingStatusPublisherTest {
+
+    @Autowired
+    private BookingStatusPublisher publisher;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testTransitionReachesOtherNode() throws InterruptedException {
+        SimpMessagingTemplate otherBroker = mock(SimpMessagingTemplate.class);
+        CountDownLatch delivered = new CountDownLatch(1);
+        doAnswer(call -> {
+            delivered.countDown();
+            return null;
+        }).when(otherBroker).convertAndSend(eq(BookingStatusPublisher.destinationFor(-42L)), any(Object.class));
+        BookingStatusPublisher otherNode = new BookingStatusPublisher(otherBroker, bookingRepository, dataSource);
+        otherNode.start();
+        try {
+            // The other node starts listening in the background; keep publishing until it is
+            for (int attempt = 0; attempt < 50 && delivered.getCount() > 0; attempt++) {
+                publisher.publish(-42L, Booking.BookingStatus.CONFIRMED, null);
+                delivered.await(100, TimeUnit.MILLISECONDS);
+            }
+            Assertions.assertEquals(0, delivered.getCount());
+        } finally {
+            otherNode.stop();
+        }
+    }
+
+    @Test
+    public void testPayloadKeepsFreeTextReason() {
+        BookingStatusEvent event = new BookingStatusEvent(7L, Booking.BookingStatus.FAILED, "Slot taken | try 18:00");
+
+        Assertions.assertEquals(event, BookingStatusPublisher.decode(BookingStatusPublisher.encode(event)));
+        Assertions.assertEquals(new BookingStatusEvent(7L, Booking.BookingStatus.CONFIRMED, null),
+                BookingStatusPublisher.decode(BookingStatusPublisher.encode(
+                        new BookingStatusEvent(7L, Booking.BookingStatus.CONFIRMED, null))));
+    }
+}
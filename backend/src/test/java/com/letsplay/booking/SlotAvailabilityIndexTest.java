@@ -0,0 +1,117 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.Ground;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SlotAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private BookingRepository bookingRepository;
+    private SlotAvailabilityIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new SlotAvailabilityIndex(bookingRepository, 60);
+    }
+
+    @Test
+    public void testDayIsLoadedOnceAndServedFromMemory() {
+        when(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(), any(), any(),
+                any())).thenReturn(List.of(booking(1L, 18, 19, Booking.BookingStatus.CONFIRMED)));
+
+        Assertions.assertEquals(1, index.getSlots(1L, DAY).size());
+        Assertions.assertEquals(1, index.getSlots(1L, DAY).size());
+
+        verify(bookingRepository, times(1)).findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(),
+                any(), any(), any());
+    }
+
+    @Test
+    public void testExpiredDayIsReadAgain() {
+        // A booking written through another node only shows up in the database
+        when(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(), any(), any(),
+                any())).thenReturn(List.of(), List.of(booking(1L, 18, 19, Booking.BookingStatus.CONFIRMED)));
+        SlotAvailabilityIndex expiring = new SlotAvailabilityIndex(bookingRepository, 0);
+
+        Assertions.assertTrue(expiring.getSlots(1L, DAY).isEmpty());
+        Assertions.assertEquals(1, expiring.getSlots(1L, DAY).size());
+        Assertions.assertTrue(expiring.findConflict(booking(2L, 18, 20, Booking.BookingStatus.PENDING)).isPresent());
+    }
+
+    @Test
+    public void testConflictsFollowBookingLifecycle() {
+        when(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(), any(), any(),
+                any())).thenReturn(List.of());
+        index.getSlots(1L, DAY);
+
+        Booking first = booking(1L, 18, 20, Booking.BookingStatus.PENDING);
+        Booking second = booking(2L, 19, 20, Booking.BookingStatus.PENDING);
+        index.record(first);
+        index.record(second);
+
+        // The earlier request wins while both are pending
+        Assertions.assertTrue(index.findConflict(first).isEmpty());
+        Assertions.assertEquals(1L, index.findConflict(second).orElseThrow().id());
+
+        first.setStatus(Booking.BookingStatus.FAILED);
+        index.record(first);
+
+        Assertions.assertTrue(index.findConflict(second).isEmpty());
+        Assertions.assertEquals(List.of(2L), index.getSlots(1L, DAY).stream().map(BookedSlot::id).toList());
+    }
+
+    @Test
+    public void testAdjacentSlotsDoNotConflict() {
+        when(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(), any(), any(),
+                any())).thenReturn(List.of(booking(1L, 18, 19, Booking.BookingStatus.CONFIRMED)));
+
+        Assertions.assertTrue(index.findConflict(booking(2L, 19, 20, Booking.BookingStatus.PENDING)).isEmpty());
+        Assertions.assertTrue(index.findConflict(booking(3L, 17, 18, Booking.BookingStatus.PENDING)).isEmpty());
+        Assertions.assertTrue(index.findConflict(booking(4L, 17, 19, Booking.BookingStatus.PENDING)).isPresent());
+    }
+
+    @Test
+    public void testOccupancyMatrixUsesSingleRangeQuery() {
+        Booking evening = booking(1L, 18, 20, Booking.BookingStatus.CONFIRMED);
+        when(bookingRepository.findByGroundIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(any(), any(), any(),
+                any())).thenReturn(List.of(evening));
+
+        Map<Long, List<String>> matrix = index.occupancy(List.of(1L, 2L), DAY, DAY.plusDays(2), 60);
+
+        Assertions.assertEquals("000000000000000000110000", matrix.get(1L).get(0));
+        Assertions.assertEquals("000000000000000000000000", matrix.get(1L).get(1));
+        Assertions.assertEquals(3, matrix.get(2L).size());
+        Assertions.assertFalse(matrix.get(2L).get(0).contains("1"));
+        verify(bookingRepository, times(1)).findByGroundIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(any(),
+                any(), any(), any());
+
+        // Days loaded by the matrix are now served from memory
+        Assertions.assertEquals(1, index.getSlots(1L, DAY).size());
+        verify(bookingRepository, times(0)).findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(),
+                any(), any(), any());
+    }
+
+    static Booking booking(Long id, int startHour, int endHour, Booking.BookingStatus status) {
+        Ground ground = new Ground();
+        ground.setId(1L);
+        LocalDateTime start = DAY.atTime(startHour, 0);
+        LocalDateTime end = DAY.atTime(endHour, 0);
+        return new Booking(id, null, ground, start, end, status, null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.Ground;
+import com.letsplay.ground.GroundRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Contention benchmark for {@link SlotReservationEngine}. Every claim pays a simulated 1ms commit,
+ * so the numbers show how many claims per second each access pattern sustains:
+ * hot = everyone wants the same ground at prime time, spread = claims land on different grounds.
+ */
+public class SlotReservationContentionBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CLAIMS = 2000;
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private SlotReservationEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class, withSettings().stubOnly());
+        when(bookingRepository.findByGroundIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(anyLong(), any(), any(),
+                any())).thenReturn(List.of());
+        when(bookingRepository.claimSlot(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(1);
+            return 1;
+        });
+
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(bookingRepository, 60);
+        engine = new SlotReservationEngine(bookingRepository,
+                mock(GroundRepository.class, withSettings().stubOnly()), index,
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()), 64, 1000);
+    }
+
+    @Test
+    public void testHotPrimeTimeSlot() throws Exception {
+        Map<SlotReservationEngine.Outcome, AtomicLong> outcomes = run("hot prime-time slot", id -> booking(id, 1L));
+
+        // Exactly one claimant wins; everyone else is turned away without waiting on a commit
+        Assertions.assertEquals(1, outcomes.get(SlotReservationEngine.Outcome.RESERVED).get());
+        Assertions.assertEquals(CLAIMS - 1, outcomes.get(SlotReservationEngine.Outcome.CONFLICT).get());
+    }
+
+    @Test
+    public void testSpreadOutSlots() throws Exception {
+        Map<SlotReservationEngine.Outcome, AtomicLong> outcomes = run("spread-out slots", id -> booking(id, id));
+
+        Assertions.assertEquals(CLAIMS, outcomes.get(SlotReservationEngine.Outcome.RESERVED).get());
+    }
+
+    private Map<SlotReservationEngine.Outcome, AtomicLong> run(String scenario, LongFunction<Booking> claims)
+            throws Exception {
+        Map<SlotReservationEngine.Outcome, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        for (SlotReservationEngine.Outcome outcome : SlotReservationEngine.Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        AtomicLong nextId = new AtomicLong(1);
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long id = nextId.getAndIncrement(); id <= CLAIMS; id = nextId.getAndIncrement()) {
+                    outcomes.get(engine.reserve(claims.apply(id)).outcome()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - began;
+        executor.shutdown();
+
+        System.out.printf("%s: %d claims on %d threads in %d ms (%.0f claims/s) %s%n", scenario, CLAIMS, THREADS,
+                elapsedNanos / 1_000_000, CLAIMS * 1e9 / elapsedNanos, outcomes);
+        return outcomes;
+    }
+
+    private static Booking booking(long id, long groundId) {
+        Ground ground = new Ground();
+        ground.setId(groundId);
+        return new Booking(id, null, ground, DAY.atTime(18, 0), DAY.atTime(19, 0), Booking.BookingStatus.PENDING,
+                null);
+    }
+}
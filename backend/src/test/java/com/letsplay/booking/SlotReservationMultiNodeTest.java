@@ -0,0 +1,119 @@
+package com.letsplay.booking;
+
+import com.letsplay.ground.Ground;
+import com.letsplay.ground.GroundRepository;
+import com.letsplay.user.User;
+import com.letsplay.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Two engines with separate stripes and indexes stand in for two API nodes. Their in-memory checks
+ * cannot see each other's claims, so only the database decides; it must let exactly one of two
+ * overlapping bookings claim the slot.
+ */
+@SpringBootTest
+public class SlotReservationMultiNodeTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private GroundRepository groundRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Ground ground;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setName("multi-node");
+        user.setEmail("multi-node-" + UUID.randomUUID() + "@reservation.test");
+        user.setPassword("password");
+        user.setRoles(Set.of(User.Role.USER));
+        user = userRepository.save(user);
+
+        ground = new Ground();
+        ground.setName("Multi-node Arena");
+        ground.setLocation("Test");
+        ground.setSportType("Football");
+        ground.setPricePerHour(10.0);
+        ground.setOwner(user);
+        ground = groundRepository.save(ground);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookingRepository.deleteAllById(bookingIds);
+        groundRepository.deleteById(ground.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void testOverlappingClaimsOnTwoNodesNeverBothWin() throws Exception {
+        SlotReservationEngine nodeA = node();
+        SlotReservationEngine nodeB = node();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime start = LocalDateTime.now().plusDays(2 + round).withHour(18).withMinute(0).withNano(0);
+                Booking first = pending(start, start.plusHours(1));
+                Booking second = pending(start.plusMinutes(30), start.plusMinutes(90));
+
+                CountDownLatch go = new CountDownLatch(1);
+                Future<SlotReservationEngine.Result> a = executor.submit(() -> {
+                    go.await();
+                    return nodeA.reserve(first);
+                });
+                Future<SlotReservationEngine.Result> b = executor.submit(() -> {
+                    go.await();
+                    return nodeB.reserve(second);
+                });
+                go.countDown();
+
+                List<SlotReservationEngine.Outcome> outcomes = List.of(a.get().outcome(), b.get().outcome());
+                Assertions.assertTrue(outcomes.contains(SlotReservationEngine.Outcome.RESERVED), outcomes.toString());
+                Assertions.assertTrue(outcomes.contains(SlotReservationEngine.Outcome.CONFLICT), outcomes.toString());
+                long claimed = bookingRepository.findAllById(List.of(first.getId(), second.getId())).stream()
+                        .filter(booking -> Boolean.TRUE.equals(booking.getSlotReserved()))
+                        .count();
+                Assertions.assertEquals(1, claimed);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private SlotReservationEngine node() {
+        return new SlotReservationEngine(bookingRepository, groundRepository,
+                new SlotAvailabilityIndex(bookingRepository, 60), transactionManager, 64, 1000);
+    }
+
+    private Booking pending(LocalDateTime start, LocalDateTime end) {
+        Booking booking = bookingRepository.save(
+                new Booking(null, user, ground, start, end, Booking.BookingStatus.PENDING, null));
+        bookingIds.add(booking.getId());
+        return booking;
+    }
+}
@@ -0,0 +1,29 @@
+package com.letsplay.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        // Touching 1 makes 2 the eldest
+        Assertions.assertEquals("one", cache.get(1L));
+        cache.put(3L, "three");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertNull(cache.get(2L));
+        Assertions.assertEquals("one", cache.get(1L));
+        Assertions.assertEquals("three", cache.get(3L));
+    }
+
+    @Test
+    public void testComputeIfAbsentLoadsOnce() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(4);
+        Assertions.assertEquals("1", cache.computeIfAbsent(1L, String::valueOf));
+        Assertions.assertEquals("1", cache.computeIfAbsent(1L, id -> "reloaded"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.letsplay.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class HashedTimerWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    public void testTimersFireOnTheirTickAndNotBefore() {
+        HashedTimerWheel wheel = new HashedTimerWheel(8, TICK, 0);
+        wheel.schedule(1L, 250);
+        wheel.schedule(2L, 300);
+        wheel.schedule(3L, 1000);
+
+        Assertions.assertArrayEquals(new long[0], wheel.advance(200));
+        Assertions.assertArrayEquals(new long[] { 1L, 2L }, sorted(wheel.advance(300)));
+        Assertions.assertEquals(1, wheel.size());
+        Assertions.assertArrayEquals(new long[] { 3L }, wheel.advance(1000));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTimersBeyondOneTurnWaitForTheirRound() {
+        // 8 buckets of 100ms: a 2.5s deadline shares a bucket with earlier ticks
+        HashedTimerWheel wheel = new HashedTimerWheel(8, TICK, 0);
+        wheel.schedule(1L, 2500);
+
+        for (long now = TICK; now < 2500; now += TICK) {
+            Assertions.assertArrayEquals(new long[0], wheel.advance(now));
+        }
+        Assertions.assertArrayEquals(new long[] { 1L }, wheel.advance(2500));
+    }
+
+    @Test
+    public void testLongPauseFiresEverythingOverdue() {
+        HashedTimerWheel wheel = new HashedTimerWheel(8, TICK, 0);
+        for (long id = 0; id < 10_000; id++) {
+            wheel.schedule(id, 100 + id * 7);
+        }
+        wheel.schedule(99_999L, 1_000_000);
+
+        long[] expired = wheel.advance(100 + 10_000 * 7);
+        Assertions.assertEquals(10_000, expired.length);
+        Assertions.assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testOverdueTimerFiresOnNextTick() {
+        HashedTimerWheel wheel = new HashedTimerWheel(8, TICK, 1000);
+        wheel.schedule(1L, 500);
+
+        Assertions.assertArrayEquals(new long[] { 1L }, wheel.advance(1100));
+    }
+
+    private static long[] sorted(long[] ids) {
+        Arrays.sort(ids);
+        return ids;
+    }
+}
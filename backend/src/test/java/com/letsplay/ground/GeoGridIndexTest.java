@@ -0,0 +1,121 @@
+package com.letsplay.ground;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The grid search must return exactly what a brute-force scan of every ground returns, including
+ * across the antimeridian and at high latitudes where cells get narrow.
+ */
+public class GeoGridIndexTest {
+
+    // Bengaluru, Mumbai, Fiji (straddles 180°), Longyearbyen
+    private static final double[][] CITIES = { { 12.97, 77.59 }, { 19.07, 72.87 }, { -17.8, 179.9 },
+            { 78.22, 15.65 } };
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Ground> grounds = scatter(random, 5_000);
+        GeoGridIndex index = GeoGridIndex.build(grounds);
+
+        for (int query = 0; query < 500; query++) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            double latitude = city[0] + random.nextGaussian() * 0.2;
+            double longitude = wrap(city[1] + random.nextGaussian() * 0.2);
+            double radiusKm = 1 + random.nextDouble() * 99;
+            int limit = 1 + random.nextInt(50);
+
+            Assertions.assertEquals(bruteForce(grounds, latitude, longitude, radiusKm, limit),
+                    ids(index.nearest(latitude, longitude, radiusKm, limit)),
+                    "query " + latitude + "," + longitude + " within " + radiusKm + " km, limit " + limit);
+        }
+    }
+
+    @Test
+    public void testGroundsWithoutCoordinatesAreLeftOut() {
+        Ground placed = ground(1L, 12.97, 77.59);
+        Ground unplaced = ground(2L, 12.97, 77.59);
+        unplaced.setLatitude(null);
+        GeoGridIndex index = GeoGridIndex.build(List.of(placed, unplaced));
+
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertEquals(List.of(1L), ids(index.nearest(12.97, 77.59, 5, 10)));
+        Assertions.assertTrue(index.nearest(13.5, 77.59, 5, 10).isEmpty());
+    }
+
+    @Test
+    public void testNearestAmongManyGrounds() {
+        Random random = new Random(11);
+        List<Ground> grounds = scatter(random, 50_000);
+        GeoGridIndex index = GeoGridIndex.build(grounds);
+
+        int queries = 20_000;
+        long began = System.nanoTime();
+        for (int query = 0; query < queries; query++) {
+            double[] city = CITIES[query % CITIES.length];
+            index.nearest(city[0] + random.nextGaussian() * 0.1, wrap(city[1] + random.nextGaussian() * 0.1), 10, 20);
+        }
+        long indexed = System.nanoTime() - began;
+
+        began = System.nanoTime();
+        for (int query = 0; query < 200; query++) {
+            double[] city = CITIES[query % CITIES.length];
+            bruteForce(grounds, city[0], city[1], 10, 20);
+        }
+        long scanned = System.nanoTime() - began;
+
+        System.out.printf("%d grounds: grid search %.1f us/query, full scan %.1f us/query%n", grounds.size(),
+                indexed / 1e3 / queries, scanned / 1e3 / 200);
+    }
+
+    // Grounds clustered around each city, plus a sprinkling across the globe
+    private static List<Ground> scatter(Random random, int count) {
+        List<Ground> grounds = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            if (id % 10 == 0) {
+                grounds.add(ground(id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+            } else {
+                double[] city = CITIES[(int) (id % CITIES.length)];
+                grounds.add(ground(id, Math.max(-90, Math.min(90, city[0] + random.nextGaussian() * 0.3)),
+                        wrap(city[1] + random.nextGaussian() * 0.3)));
+            }
+        }
+        return grounds;
+    }
+
+    private static List<Long> bruteForce(List<Ground> grounds, double latitude, double longitude, double radiusKm,
+            int limit) {
+        return ids(grounds.stream()
+                .map(ground -> new NearbyGround(ground, GeoGridIndex.distanceKm(latitude, longitude,
+                        ground.getLatitude(), ground.getLongitude())))
+                .filter(nearby -> nearby.distanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyGround::distanceKm)
+                        .thenComparing(nearby -> nearby.ground().getId()))
+                .limit(limit)
+                .toList());
+    }
+
+    private static List<Long> ids(List<NearbyGround> nearby) {
+        return nearby.stream().map(result -> result.ground().getId()).toList();
+    }
+
+    private static double wrap(double longitude) {
+        return ((longitude + 540) % 360) - 180;
+    }
+
+    private static Ground ground(Long id, double latitude, double longitude) {
+        Ground ground = new Ground();
+        ground.setId(id);
+        ground.setName("Ground " + id);
+        ground.setSportType("Football");
+        ground.setLatitude(latitude);
+        ground.setLongitude(longitude);
+        return ground;
+    }
+}
@@ -0,0 +1,176 @@
+package com.letsplay.ground;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GroundCatalogTest {
+
+    private GroundRepository groundRepository;
+    private GroundCatalog catalog;
+    private final List<Ground> rows = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        rows.clear();
+        rows.add(ground(2L, "Turf Two", "Football"));
+        rows.add(ground(1L, "Court One", "Badminton"));
+        rows.add(ground(3L, "Turf Three", "football"));
+        groundRepository = mock(GroundRepository.class);
+        when(groundRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(rows));
+        catalog = new GroundCatalog(groundRepository, 3600);
+    }
+
+    @Test
+    public void testReadsAreServedFromOneLoad() {
+        GroundCatalog.Snapshot snapshot = catalog.snapshot();
+        catalog.snapshot();
+
+        verify(groundRepository, times(1)).findAll();
+        Assertions.assertEquals(List.of(1L, 2L, 3L), snapshot.all().stream().map(Ground::getId).toList());
+        Assertions.assertEquals(List.of(2L, 3L), snapshot.list("FOOTBALL").stream().map(Ground::getId).toList());
+        Assertions.assertTrue(snapshot.list("Cricket").isEmpty());
+        Assertions.assertEquals("Court One", snapshot.get(1L).orElseThrow().getName());
+        Assertions.assertTrue(snapshot.get(99L).isEmpty());
+    }
+
+    @Test
+    public void testWriteSwapsInANewSnapshot() {
+        GroundCatalog.Snapshot before = catalog.snapshot();
+
+        Ground repriced = ground(2L, "Turf Two", "Football");
+        repriced.setPricePerHour(99.0);
+        rows.set(0, repriced);
+        catalog.refreshAfterCommit();
+        GroundCatalog.Snapshot after = catalog.snapshot();
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals(50.0, before.get(2L).orElseThrow().getPricePerHour());
+        Assertions.assertEquals(99.0, after.get(2L).orElseThrow().getPricePerHour());
+        Assertions.assertNotEquals(before.listEtag(null), after.listEtag(null));
+        Assertions.assertNotEquals(before.groundEtag(2L), after.groundEtag(2L));
+        Assertions.assertEquals(before.groundEtag(1L), after.groundEtag(1L));
+    }
+
+    @Test
+    public void testStaleReloadDoesNotReplaceNewerSnapshot() throws Exception {
+        catalog.snapshot();
+        CountDownLatch staleRead = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The scheduled reload reads the table just before an admin edit and is slow to finish
+        when(groundRepository.findAll()).thenAnswer(invocation -> {
+            List<Ground> read = new ArrayList<>(rows);
+            staleRead.countDown();
+            release.await();
+            return read;
+        }).thenAnswer(invocation -> new ArrayList<>(rows));
+        Thread scheduled = new Thread(catalog::refreshAfterCommit);
+        scheduled.start();
+        staleRead.await();
+
+        Ground repriced = ground(2L, "Turf Two", "Football");
+        repriced.setPricePerHour(99.0);
+        rows.set(0, repriced);
+        Thread afterEdit = new Thread(catalog::refreshAfterCommit);
+        afterEdit.start();
+        while (afterEdit.getState() != Thread.State.BLOCKED && afterEdit.getState() != Thread.State.TERMINATED) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        scheduled.join();
+        afterEdit.join();
+
+        Assertions.assertEquals(99.0, catalog.snapshot().get(2L).orElseThrow().getPricePerHour());
+    }
+
+    @Test
+    public void testEtagsDependOnContentOnly() {
+        GroundCatalog.Snapshot first = GroundCatalog.build(rows);
+        GroundCatalog.Snapshot second = GroundCatalog.build(List.of(rows.get(2), rows.get(1), rows.get(0)));
+
+        Assertions.assertEquals(first.listEtag(null), second.listEtag(null));
+        Assertions.assertEquals(first.listEtag("Football"), second.listEtag("football"));
+        Assertions.assertNotEquals(first.listEtag(null), first.listEtag("football"));
+    }
+
+    @Test
+    public void testMatchingEtagIsAnsweredWithNotModified() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new GroundController(catalog, 100, 100)).build();
+        String etag = catalog.snapshot().listEtag("football");
+
+        mockMvc.perform(get("/grounds").param("sportType", "football"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/grounds").param("sportType", "football").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/grounds/1").header("If-None-Match", catalog.snapshot().groundEtag(1L)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/grounds/99")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testNearbyIsFilteredBySportAndFollowsEdits() throws Exception {
+        rows.get(0).setLatitude(12.9352);
+        rows.get(0).setLongitude(77.6245);
+        rows.get(1).setLatitude(12.9360);
+        rows.get(1).setLongitude(77.6250);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new GroundController(catalog, 100, 100)).build();
+
+        mockMvc.perform(get("/grounds/nearby").param("lat", "12.9352").param("lng", "77.6245"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].ground.id").value(2))
+                .andExpect(jsonPath("$[0].distanceKm").value(0.0));
+        mockMvc.perform(get("/grounds/nearby").param("lat", "12.9352").param("lng", "77.6245")
+                .param("sportType", "badminton"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].ground.id").value(1));
+
+        // Ground 3 is placed next to the query point by an admin edit
+        Ground placed = ground(3L, "Turf Three", "football");
+        placed.setLatitude(12.9352);
+        placed.setLongitude(77.6246);
+        rows.set(2, placed);
+        catalog.refreshAfterCommit();
+        mockMvc.perform(get("/grounds/nearby").param("lat", "12.9352").param("lng", "77.6245")
+                .param("sportType", "Football").param("limit", "1").param("radiusKm", "0.5"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].ground.id").value(2));
+        mockMvc.perform(get("/grounds/nearby").param("lat", "12.9352").param("lng", "77.6247")
+                .param("sportType", "Football").param("limit", "1"))
+                .andExpect(jsonPath("$[0].ground.id").value(3));
+
+        mockMvc.perform(get("/grounds/nearby").param("lat", "91").param("lng", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/grounds/nearby").param("lat", "0").param("lng", "0").param("radiusKm", "500"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/grounds/nearby").param("lat", "0").param("lng", "0").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Ground ground(Long id, String name, String sportType) {
+        Ground ground = new Ground();
+        ground.setId(id);
+        ground.setName(name);
+        ground.setLocation("Test");
+        ground.setSportType(sportType);
+        ground.setPricePerHour(50.0);
+        return ground;
+    }
+}
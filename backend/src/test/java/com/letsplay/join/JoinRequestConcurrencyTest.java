@@ -0,0 +1,193 @@
+package com.letsplay.join;
+
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.BookingService;
+import com.letsplay.ground.Ground;
+import com.letsplay.ground.GroundRepository;
+import com.letsplay.notification.NotificationRepository;
+import com.letsplay.user.User;
+import com.letsplay.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers one public game from many threads against the real database. The player count is only
+ * ever changed by the conditional UPDATE, so the game fills up exactly and the losers are told it
+ * is full instead of failing on a lock timeout or deadlock.
+ */
+@SpringBootTest
+public class JoinRequestConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int MAX_PLAYERS = 10;
+    private static final int CONTENDERS = 60;
+
+    @Autowired
+    private JoinRequestService joinRequestService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JoinRequestRepository joinRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private GroundRepository groundRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private Ground ground;
+    private Booking game;
+
+    @BeforeEach
+    public void setUp() {
+        User host = user("host");
+        ground = new Ground();
+        ground.setName("Concurrency Arena");
+        ground.setLocation("Test");
+        ground.setSportType("Football");
+        ground.setPricePerHour(10.0);
+        ground.setOwner(host);
+        ground = groundRepository.save(ground);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        game = new Booking(null, host, ground, start, start.plusHours(1), Booking.BookingStatus.CONFIRMED, null);
+        game.setIsPublic(true);
+        game.setMaxPlayers(MAX_PLAYERS);
+        game.setJoinedPlayers(1);
+        game = bookingRepository.save(game);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        joinRequestRepository.deleteAll(joinRequestRepository.findByBookingId(game.getId()));
+        bookingRepository.deleteById(game.getId());
+        groundRepository.deleteById(ground.getId());
+        for (User user : users) {
+            notificationRepository.deleteAll(notificationRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    public void testConcurrentAcceptsNeverOversubscribe() throws Exception {
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            requestIds.add(joinRequestRepository.save(new JoinRequest(user("player" + i), game)).getId());
+        }
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            calls.add(() -> joinRequestService.respondToRequest(requestId, JoinRequest.RequestStatus.ACCEPTED));
+        }
+        Map<String, AtomicLong> outcomes = hammer("accept join requests", calls);
+
+        assertFilledExactly(outcomes);
+        long accepted = joinRequestRepository.findByBookingId(game.getId()).stream()
+                .filter(request -> request.getStatus() == JoinRequest.RequestStatus.ACCEPTED)
+                .count();
+        Assertions.assertEquals(MAX_PLAYERS - 1, accepted);
+    }
+
+    @Test
+    public void testConcurrentDirectJoinsNeverOversubscribe() throws Exception {
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            Long userId = user("player" + i).getId();
+            calls.add(() -> bookingService.joinBooking(game.getId(), userId));
+        }
+        Map<String, AtomicLong> outcomes = hammer("join booking", calls);
+
+        assertFilledExactly(outcomes);
+    }
+
+    @Test
+    public void testRequestCanOnlyBeAcceptedOnce() throws Exception {
+        Long requestId = joinRequestRepository.save(new JoinRequest(user("twice"), game)).getId();
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            calls.add(() -> joinRequestService.respondToRequest(requestId, JoinRequest.RequestStatus.ACCEPTED));
+        }
+        Map<String, AtomicLong> outcomes = hammer("accept one request", calls);
+
+        Assertions.assertEquals(1, outcomes.get("won").get());
+        Assertions.assertEquals(THREADS - 1, outcomes.get("Request has already been answered").get());
+        Assertions.assertEquals(2, bookingRepository.findById(game.getId()).orElseThrow().getJoinedPlayers());
+    }
+
+    private void assertFilledExactly(Map<String, AtomicLong> outcomes) {
+        // Anything but a win or "full" (lock timeout, deadlock, lost update) shows up as its own key
+        Assertions.assertEquals(Set.of("won", "Booking is full"), outcomes.keySet(), outcomes.toString());
+        Assertions.assertEquals(MAX_PLAYERS - 1, outcomes.get("won").get());
+        Assertions.assertEquals(CONTENDERS - (MAX_PLAYERS - 1), outcomes.get("Booking is full").get());
+        Assertions.assertEquals(MAX_PLAYERS, bookingRepository.findById(game.getId()).orElseThrow().getJoinedPlayers());
+    }
+
+    private Map<String, AtomicLong> hammer(String scenario, List<Callable<Object>> calls) throws Exception {
+        Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        AtomicLong slowestNanos = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<Object> call : calls) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long began = System.nanoTime();
+                String outcome;
+                try {
+                    call.call();
+                    outcome = "won";
+                } catch (RuntimeException e) {
+                    outcome = e.getMessage();
+                }
+                slowestNanos.accumulateAndGet(System.nanoTime() - began, Math::max);
+                outcomes.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        System.out.printf("%s: %d calls on %d threads in %d ms, slowest %d ms %s%n", scenario, calls.size(), THREADS,
+                (System.nanoTime() - began) / 1_000_000, slowestNanos.get() / 1_000_000, outcomes);
+        return outcomes;
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@concurrency.test");
+        user.setPassword("password");
+        user.setRoles(Set.of(User.Role.USER));
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,120 @@
+package com.letsplay.security;
+
+import com.letsplay.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JwtAuthenticationFilterTest {
+
+    private JwtUtil jwtUtil;
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationList revocationList;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtil = new JwtUtil(JwtKeyRingTest.randomKeyRing(), 100);
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        revocationList = new TokenRevocationList(revokedTokenRepository, mock(PlatformTransactionManager.class), 5);
+        filter = new JwtAuthenticationFilter(jwtUtil, revocationList);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testAuthenticatesFromClaimsAlone() throws Exception {
+        User user = new User(7L, "owner@letsplay.com", "hash", "Owner", Set.of(User.Role.GROUND_OWNER, User.Role.USER));
+
+        Authentication authentication = authenticate(jwtUtil.generateToken(user));
+
+        Assertions.assertNotNull(authentication);
+        Assertions.assertEquals("owner@letsplay.com", authentication.getName());
+        Assertions.assertEquals(7L, ((JwtPrincipal) authentication.getPrincipal()).userId());
+        Assertions.assertEquals(Set.of("ROLE_GROUND_OWNER", "ROLE_USER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testRevokedTokenIsIgnored() throws Exception {
+        String token = jwtUtil.generateToken(new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER)));
+        VerifiedToken verified = jwtUtil.verify(token).orElseThrow();
+        revocationList.revoke(verified.tokenId(), verified.expiresAt());
+
+        Assertions.assertNull(authenticate(token));
+    }
+
+    @Test
+    public void testTokenRevokedOnAnotherNodeIsIgnoredAfterSync() throws Exception {
+        String token = jwtUtil.generateToken(new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER)));
+        VerifiedToken verified = jwtUtil.verify(token).orElseThrow();
+        Assertions.assertNotNull(authenticate(token));
+        SecurityContextHolder.clearContext();
+
+        // Another node logged this token out and wrote it to the shared table
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(new RevokedToken(
+                verified.tokenId(), LocalDateTime.ofInstant(verified.expiresAt().toInstant(), ZoneId.systemDefault()))));
+        revocationList.sync();
+
+        Assertions.assertNull(authenticate(token));
+    }
+
+    @Test
+    public void testTamperedTokenIsIgnored() throws Exception {
+        String token = jwtUtil.generateToken(new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER)));
+
+        Assertions.assertNull(authenticate(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    public void testRepeatedTokenIsVerifiedOnce() {
+        String token = jwtUtil.generateToken(new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER)));
+
+        VerifiedToken first = jwtUtil.verify(token).orElseThrow();
+
+        Assertions.assertSame(first, jwtUtil.verify(token).orElseThrow());
+        Assertions.assertEquals(List.of("USER"), first.roles());
+    }
+
+    @Test
+    public void testTamperedClaimsAreNotServedFromTheCache() {
+        String token = jwtUtil.generateToken(new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER)));
+        jwtUtil.verify(token).orElseThrow();
+
+        // Same signature, different payload
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin@letsplay.com\",\"roles\":[\"ADMIN\"]}".getBytes()) + "." + parts[2];
+
+        Assertions.assertTrue(jwtUtil.verify(forged).isEmpty());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,92 @@
+package com.letsplay.security;
+
+import com.letsplay.user.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of the JWT filter path: a few hundred clients each sending their token over and over.
+ * Runs once with the verified-token cache disabled (every request pays Base64, HMAC and JSON parsing)
+ * and once with it enabled. There is no JMH in this build, so this is a warm-up pass plus a timed pass.
+ * Timings are printed, not asserted; run with {@code mvn test -Pbenchmark -Dtest=JwtFilterBenchmarkTest}.
+ */
+@Tag("benchmark")
+public class JwtFilterBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    public void testFilterThroughput() throws Exception {
+        run("verified-token cache off", 0);
+        run("verified-token cache on", 10_000);
+    }
+
+    private void run(String scenario, int cacheSize) throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(JwtKeyRingTest.randomKeyRing(), cacheSize);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, new TokenRevocationList(
+                mock(RevokedTokenRepository.class), mock(PlatformTransactionManager.class), 5));
+        List<String> tokens = new ArrayList<>();
+        for (long id = 1; id <= CLIENTS; id++) {
+            tokens.add(jwtUtil.generateToken(new User(id, "user" + id + "@letsplay.com", "hash", "User " + id,
+                    Set.of(User.Role.USER))));
+        }
+
+        pass(filter, tokens, REQUESTS / 10);
+        long began = System.nanoTime();
+        long authenticated = pass(filter, tokens, REQUESTS);
+        long elapsedNanos = System.nanoTime() - began;
+
+        Assertions.assertEquals(REQUESTS, authenticated);
+        System.out.printf("%s: %d requests on %d threads in %d ms (%.0f requests/s, %.1f us each)%n", scenario,
+                REQUESTS, THREADS, elapsedNanos / 1_000_000, REQUESTS * 1e9 / elapsedNanos,
+                elapsedNanos / 1e3 / REQUESTS * THREADS);
+    }
+
+    private long pass(JwtAuthenticationFilter filter, List<String> tokens, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong next = new AtomicLong();
+        AtomicLong authenticated = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+                    request.addHeader("Authorization", "Bearer " + tokens.get((int) (i % tokens.size())));
+                    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                    if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                        authenticated.incrementAndGet();
+                    }
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return authenticated.get();
+    }
+}
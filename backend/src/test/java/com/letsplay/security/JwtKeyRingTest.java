@@ -0,0 +1,96 @@
+package com.letsplay.security;
+
+import com.letsplay.user.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+public class JwtKeyRingTest {
+
+    private static final String KEY_A = secret();
+    private static final String KEY_B = secret();
+    private static final User USER = new User(7L, "user@letsplay.com", "hash", "User", Set.of(User.Role.USER));
+
+    @TempDir
+    Path dir;
+
+    static JwtKeyRing randomKeyRing() {
+        return new JwtKeyRing(new JwtProperties(null, Map.of(), null, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    public void testAnyNodeVerifiesAnyNodesTokens() {
+        JwtUtil nodeOne = node("a", Map.of("a", KEY_A));
+        JwtUtil nodeTwo = node("a", Map.of("a", KEY_A));
+
+        String token = nodeOne.generateToken(USER);
+
+        Assertions.assertEquals("user@letsplay.com", nodeTwo.verify(token).orElseThrow().subject());
+        Assertions.assertEquals("a", nodeTwo.verify(token).orElseThrow().keyId());
+    }
+
+    @Test
+    public void testRotationKeepsOldTokensValidUntilTheKeyIsDropped() {
+        String oldToken = node("a", Map.of("a", KEY_A)).generateToken(USER);
+
+        // New key active, old one still in the ring for verification
+        JwtUtil rotated = node("b", Map.of("a", KEY_A, "b", KEY_B));
+        String newToken = rotated.generateToken(USER);
+        Assertions.assertTrue(rotated.verify(oldToken).isPresent());
+        Assertions.assertEquals("b", rotated.verify(newToken).orElseThrow().keyId());
+
+        JwtUtil retired = node("b", Map.of("b", KEY_B));
+        Assertions.assertTrue(retired.verify(oldToken).isEmpty());
+        Assertions.assertTrue(retired.verify(newToken).isPresent());
+    }
+
+    @Test
+    public void testRandomKeyIsNotSharedBetweenNodes() {
+        String token = new JwtUtil(randomKeyRing(), 10).generateToken(USER);
+
+        Assertions.assertTrue(new JwtUtil(randomKeyRing(), 10).verify(token).isEmpty());
+    }
+
+    @Test
+    public void testKeyFileChangesArePickedUp() throws Exception {
+        Path file = dir.resolve("jwt-keys.properties");
+        Files.writeString(file, "active-key-id=a\nkeys.a=" + KEY_A + "\n");
+        JwtKeyRing keyRing = new JwtKeyRing(new JwtProperties(null, Map.of(), file.toString(), Duration.ofHours(1)));
+        JwtUtil jwtUtil = new JwtUtil(keyRing, 10);
+        String oldToken = jwtUtil.generateToken(USER);
+
+        Files.writeString(file, "active-key-id=b\nkeys.b=" + KEY_B + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        keyRing.reloadIfChanged();
+
+        Assertions.assertEquals("b", keyRing.activeKeyId());
+        // Dropping the key revokes its tokens even though they were verified and cached before
+        Assertions.assertTrue(jwtUtil.verify(oldToken).isEmpty());
+        Assertions.assertTrue(jwtUtil.verify(jwtUtil.generateToken(USER)).isPresent());
+        keyRing.stop();
+    }
+
+    @Test
+    public void testActiveKeyMustBeInTheRing() {
+        Assertions.assertThrows(IllegalStateException.class, () -> node("c", Map.of("a", KEY_A)));
+    }
+
+    private static JwtUtil node(String activeKeyId, Map<String, String> keys) {
+        return new JwtUtil(new JwtKeyRing(new JwtProperties(activeKeyId, keys, null, Duration.ofSeconds(30))), 10);
+    }
+
+    private static String secret() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
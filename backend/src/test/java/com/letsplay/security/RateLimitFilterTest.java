@@ -0,0 +1,104 @@
+package com.letsplay.security;
+
+import com.letsplay.booking.BookingBacklogGauge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RateLimitFilterTest {
+
+    private BookingBacklogGauge backlogGauge;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        backlogGauge = mock(BookingBacklogGauge.class);
+        RateLimitProperties properties = new RateLimitProperties(true, "X-Real-IP", 4, 1000, 100, List.of(
+                new RateLimitProperties.Route("booking-writes", "POST", List.of("/bookings", "/bookings/series"),
+                        2, 0.5, true),
+                new RateLimitProperties.Route("polling", "GET",
+                        List.of("/bookings/{id:\\d+}", "/bookings/{id:\\d+}/progress"), 3, 5, false)));
+        filter = new RateLimitFilter(properties, backlogGauge);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testClientOverItsBurstGets429WithRetryAfter() throws Exception {
+        Assertions.assertEquals(200, send("POST", "/bookings", "10.0.0.1").getStatus());
+        Assertions.assertEquals(200, send("POST", "/bookings/series", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse limited = send("POST", "/bookings", "10.0.0.1");
+        Assertions.assertEquals(429, limited.getStatus());
+        Assertions.assertEquals("2", limited.getHeader("Retry-After"));
+
+        // Someone else behind the same proxy is unaffected
+        Assertions.assertEquals(200, send("POST", "/bookings", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    public void testSignedInClientsAreLimitedByUserId() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            signIn(7L);
+            Assertions.assertEquals(200, send("GET", "/bookings/1/progress", "10.0.0." + i).getStatus());
+        }
+        signIn(7L);
+        Assertions.assertEquals(429, send("GET", "/bookings/1/progress", "10.0.0.9").getStatus());
+        signIn(8L);
+        Assertions.assertEquals(200, send("GET", "/bookings/1/progress", "10.0.0.9").getStatus());
+    }
+
+    @Test
+    public void testBookingWritesAreShedWhileBacklogIsHigh() throws Exception {
+        when(backlogGauge.pending()).thenReturn(101L);
+
+        MockHttpServletResponse shed = send("POST", "/bookings", "10.0.0.1");
+        Assertions.assertEquals(503, shed.getStatus());
+        Assertions.assertEquals("5", shed.getHeader("Retry-After"));
+        // Reads keep working
+        Assertions.assertEquals(200, send("GET", "/bookings/1/progress", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    public void testUnlistedRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(200, send("GET", "/grounds", "10.0.0.1").getStatus());
+            // Catalog reads next to the polled booking routes
+            Assertions.assertEquals(200, send("GET", "/bookings/public", "10.0.0.1").getStatus());
+            Assertions.assertEquals(200, send("GET", "/bookings/slots", "10.0.0.1").getStatus());
+        }
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(200, send("GET", "/bookings/" + i, "10.0.0.1").getStatus());
+        }
+        Assertions.assertEquals(429, send("GET", "/bookings/42", "10.0.0.1").getStatus());
+    }
+
+    private void signIn(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(userId, "user" + userId + "@letsplay.com"), null, List.of()));
+    }
+
+    private MockHttpServletResponse send(String method, String path, String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.addHeader("X-Real-IP", clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package com.letsplay.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testBurstThenRefill() {
+        StripedRateLimiter limiter = new StripedRateLimiter(3, 1, 4, 100);
+        long now = 42 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("client", now));
+        }
+        Assertions.assertEquals(SECOND, limiter.tryAcquire("client", now));
+        // Other clients have buckets of their own
+        Assertions.assertEquals(0, limiter.tryAcquire("other", now));
+
+        Assertions.assertEquals(SECOND / 2, limiter.tryAcquire("client", now + SECOND / 2));
+        Assertions.assertEquals(0, limiter.tryAcquire("client", now + SECOND));
+    }
+
+    @Test
+    public void testRefilledBucketsAreDroppedWhenStripeIsFull() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 1, 10);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("client-" + i, 0);
+        }
+        Assertions.assertEquals(10, limiter.trackedClients());
+
+        Assertions.assertEquals(0, limiter.tryAcquire("late", 2 * SECOND));
+        Assertions.assertEquals(1, limiter.trackedClients());
+    }
+
+    @Test
+    public void testContendedBucketGrantsExactlyItsCapacity() throws Exception {
+        StripedRateLimiter limiter = new StripedRateLimiter(100, 0.001, 8, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("grabber", 0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(100, granted.get());
+    }
+}
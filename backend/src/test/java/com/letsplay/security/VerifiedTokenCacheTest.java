@@ -0,0 +1,48 @@
+package com.letsplay.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+public class VerifiedTokenCacheTest {
+
+    @Test
+    public void testExpiredTokensAreEvictedFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        for (int i = 0; i < 5; i++) {
+            cache.put("expired-" + i, token(-60_000));
+        }
+        for (int i = 0; i < 6; i++) {
+            cache.put("live-" + i, token(60_000));
+        }
+
+        Assertions.assertEquals(6, cache.size());
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertNotNull(cache.get("live-" + i));
+        }
+    }
+
+    @Test
+    public void testStaysBoundedWhenNothingHasExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("token-" + i, token(60_000));
+            Assertions.assertTrue(cache.size() <= 100);
+        }
+        Assertions.assertNotNull(cache.get("token-999"));
+    }
+
+    @Test
+    public void testZeroSizeDisablesCaching() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token", token(60_000));
+        Assertions.assertNull(cache.get("token"));
+    }
+
+    private static VerifiedToken token(long expiresInMillis) {
+        return new VerifiedToken("user@letsplay.com", 7L, List.of("USER"), "jti",
+                new Date(System.currentTimeMillis() + expiresInMillis), "k1");
+    }
+}
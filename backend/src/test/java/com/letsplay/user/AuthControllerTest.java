@@ -0,0 +1,68 @@
+package com.letsplay.user;
+
+import com.letsplay.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "security.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+public class AuthControllerTest {
+
+    private static final String EMAIL = "login@auth.test";
+    private static final String PASSWORD = "login-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    public void setUp() {
+        tearDown();
+        jdbcTemplate.update("INSERT INTO users (email, password, name) VALUES (?, ?, 'Login Test')", EMAIL,
+                passwordHasher.encode(PASSWORD));
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, roles) SELECT id, 'USER' FROM users WHERE email = ?",
+                EMAIL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (SELECT id FROM users WHERE email = ?)", EMAIL);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    public void testCorrectPasswordIsAccepted() throws Exception {
+        login(EMAIL, PASSWORD).andExpect(status().isOk()).andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    public void testWrongPasswordIsRejected() throws Exception {
+        login(EMAIL, "wrong").andExpect(status().isUnauthorized());
+        login("nobody@auth.test", PASSWORD).andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        MvcResult pending = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending));
+    }
+}
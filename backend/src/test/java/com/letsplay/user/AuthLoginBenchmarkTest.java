@@ -0,0 +1,106 @@
+package com.letsplay.user;
+
+import com.letsplay.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login latency with 100k registered users. The users are bulk-inserted with one shared hash, then
+ * random users log in through the controller. Login time is dominated by the BCrypt cost; the user
+ * lookup itself stays an index probe however many users there are. Seeding takes over a minute, so
+ * this only runs with the benchmark profile: {@code mvn test -Pbenchmark -Dtest=AuthLoginBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "security.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+public class AuthLoginBenchmarkTest {
+
+    private static final int USERS = 100_000;
+    private static final int LOGINS = 50;
+    private static final String DOMAIN = "@login.bench";
+    private static final String PASSWORD = "bench-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    public void setUp() {
+        tearDown();
+        jdbcTemplate.update("INSERT INTO users (email, password, name) "
+                + "SELECT 'bench-' || g || '" + DOMAIN + "', ?, 'Bench ' || g FROM generate_series(1, ?) g",
+                passwordHasher.encode(PASSWORD), USERS);
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, roles) "
+                + "SELECT id, 'USER' FROM users WHERE email LIKE '%" + DOMAIN + "'");
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN "
+                + "(SELECT id FROM users WHERE email LIKE '%" + DOMAIN + "')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + DOMAIN + "'");
+    }
+
+    @Test
+    public void testLoginLatencyAt100kUsers() throws Exception {
+        Random random = new Random(42);
+
+        long[] lookups = new long[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            String email = "bench-" + (1 + random.nextInt(USERS)) + DOMAIN;
+            long began = System.nanoTime();
+            Assertions.assertTrue(userRepository.findByEmail(email).isPresent());
+            lookups[i] = System.nanoTime() - began;
+        }
+
+        // The login lookup must be answered from the unique email index, not a scan of all users
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM users WHERE email = 'bench-1" + DOMAIN + "'", String.class));
+        Assertions.assertTrue(plan.contains("Index Scan"), plan);
+
+        long[] logins = new long[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            String email = "bench-" + (1 + random.nextInt(USERS)) + DOMAIN;
+            long began = System.nanoTime();
+            MvcResult pending = mockMvc.perform(post("/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+            logins[i] = System.nanoTime() - began;
+        }
+
+        System.out.printf("%d users: lookup by email p50 %.2f ms p99 %.2f ms, login p50 %.1f ms p99 %.1f ms%n",
+                USERS, percentile(lookups, 50), percentile(lookups, 99), percentile(logins, 50),
+                percentile(logins, 99));
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1e6;
+    }
+}
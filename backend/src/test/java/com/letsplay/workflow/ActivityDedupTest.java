@@ -0,0 +1,59 @@
+package com.letsplay.workflow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ActivityDedupTest {
+
+    private ActivityCompletionRepository completionRepository;
+    private ActivityDedup dedup;
+
+    @BeforeEach
+    public void setUp() {
+        completionRepository = mock(ActivityCompletionRepository.class);
+        dedup = new ActivityDedup(completionRepository, mock(PlatformTransactionManager.class), 100, 24);
+    }
+
+    @Test
+    public void testFirstAttemptNeverReadsTheTable() {
+        Assertions.assertFalse(dedup.isCompleted(key(1)));
+        verify(completionRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    public void testRetryAfterCompletionIsServedFromMemory() {
+        dedup.recordCompleted(key(1));
+
+        Assertions.assertTrue(dedup.isCompleted(key(2)));
+        verify(completionRepository).insertIfAbsent(anyString(), anyString(), anyString(), anyInt(), any());
+        verify(completionRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    public void testRetryFallsBackToTheTable() {
+        // Completed on another worker, or before this one restarted
+        when(completionRepository.existsById("run-1/3")).thenReturn(true);
+
+        Assertions.assertTrue(dedup.isCompleted(key(2)));
+        Assertions.assertFalse(dedup.isCompleted(new ActivityDedup.Key("run-1/4", "booking-1", "ConfirmBooking", 2)));
+    }
+
+    @Test
+    public void testNoKeyOutsideAnActivity() {
+        Assertions.assertTrue(dedup.currentKey().isEmpty());
+    }
+
+    private static ActivityDedup.Key key(int attempt) {
+        return new ActivityDedup.Key("run-1/3", "booking-1", "ConfirmBooking", attempt);
+    }
+}
@@ -0,0 +1,204 @@
+package com.letsplay.workflow;
+
+import com.letsplay.payment.PaymentGateway;
+import com.letsplay.payment.PaymentRequest;
+import com.letsplay.payment.PaymentResult;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+public class AsyncPaymentCompleterTest {
+
+    private TestWorkflowEnvironment testEnv;
+    private Worker worker;
+    private FakeGateway gateway;
+    private PaymentActivitiesStub activities;
+
+    @BeforeEach
+    public void setUp() {
+        testEnv = TestWorkflowEnvironment.newInstance();
+        // A single activity slot: a blocking payment would stall every other booking behind it
+        worker = testEnv.newWorker("BookingTaskQueue",
+                WorkerOptions.newBuilder().setMaxConcurrentActivityExecutionSize(1).build());
+        worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class);
+        gateway = new FakeGateway();
+        activities = new PaymentActivitiesStub(new AsyncPaymentCompleter(gateway,
+                testEnv.getWorkflowClient().newActivityCompletionClient(), mock(PlatformTransactionManager.class)));
+        worker.registerActivitiesImplementations(activities);
+        testEnv.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        testEnv.close();
+    }
+
+    @Test
+    public void testPendingPaymentsDoNotHoldTheWorkerSlot() throws Exception {
+        List<WorkflowStub> runs = new CopyOnWriteArrayList<>();
+        for (long bookingId = 1; bookingId <= 3; bookingId++) {
+            BookingWorkflow workflow = newWorkflow();
+            WorkflowClient.start(workflow::processBooking, bookingId, false, false);
+            runs.add(WorkflowStub.fromTyped(workflow));
+        }
+
+        // All three charges reach the gateway although only one activity can run at a time
+        gateway.awaitCharges(3);
+        gateway.settleAll(PaymentResult.approved("ref"));
+        for (WorkflowStub run : runs) {
+            run.getResult(10, TimeUnit.SECONDS, Void.class);
+        }
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), activities.settled.stream().sorted().toList());
+        Assertions.assertEquals(3, activities.confirmed.size());
+    }
+
+    @Test
+    public void testDeclinedPaymentFailsBooking() throws Exception {
+        BookingWorkflow workflow = newWorkflow();
+        WorkflowClient.start(workflow::processBooking, 1L, false, false);
+
+        gateway.awaitCharges(1);
+        gateway.settleAll(PaymentResult.declined("Card declined"));
+
+        Assertions.assertThrows(Exception.class,
+                () -> WorkflowStub.fromTyped(workflow).getResult(10, TimeUnit.SECONDS, Void.class));
+        Assertions.assertTrue(activities.settled.isEmpty());
+        Assertions.assertTrue(activities.failed.contains(1L));
+    }
+
+    @Test
+    public void testChargeIsRefundedWhenHoldLapsedDuringPayment() throws Exception {
+        activities.expiredHolds.add(1L);
+        BookingWorkflow workflow = newWorkflow();
+        WorkflowClient.start(workflow::processBooking, 1L, false, false);
+
+        gateway.awaitCharges(1);
+        gateway.settleAll(PaymentResult.approved("ref"));
+        gateway.awaitRefunds(1);
+        gateway.settleRefunds(PaymentResult.approved("refund-ref"));
+
+        Assertions.assertThrows(Exception.class,
+                () -> WorkflowStub.fromTyped(workflow).getResult(10, TimeUnit.SECONDS, Void.class));
+        Assertions.assertEquals(List.of(1L), activities.settled);
+        Assertions.assertEquals(List.of(1L), activities.refunded);
+        Assertions.assertTrue(activities.confirmed.isEmpty());
+    }
+
+    private BookingWorkflow newWorkflow() {
+        return testEnv.getWorkflowClient().newWorkflowStub(BookingWorkflow.class,
+                WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue").build());
+    }
+
+    static class FakeGateway implements PaymentGateway {
+        private final Map<String, CompletableFuture<PaymentResult>> charges = new ConcurrentHashMap<>();
+        private final Map<String, CompletableFuture<PaymentResult>> refunds = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<PaymentResult> charge(PaymentRequest request) {
+            return charges.computeIfAbsent(request.idempotencyKey(), key -> new CompletableFuture<>());
+        }
+
+        @Override
+        public CompletableFuture<PaymentResult> refund(PaymentRequest request) {
+            return refunds.computeIfAbsent(request.idempotencyKey(), key -> new CompletableFuture<>());
+        }
+
+        void awaitRefunds(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (refunds.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(count, refunds.size());
+        }
+
+        void settleRefunds(PaymentResult result) {
+            refunds.values().forEach(refund -> refund.complete(result));
+        }
+
+        void awaitCharges(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (charges.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(count, charges.size());
+        }
+
+        void settleAll(PaymentResult result) {
+            charges.values().forEach(charge -> charge.complete(result));
+        }
+    }
+
+    static class PaymentActivitiesStub implements BookingActivities {
+        private final AsyncPaymentCompleter completer;
+        final List<Long> settled = new CopyOnWriteArrayList<>();
+        final List<Long> confirmed = new CopyOnWriteArrayList<>();
+        final List<Long> failed = new CopyOnWriteArrayList<>();
+        final List<Long> refunded = new CopyOnWriteArrayList<>();
+        final Set<Long> expiredHolds = ConcurrentHashMap.newKeySet();
+
+        PaymentActivitiesStub(AsyncPaymentCompleter completer) {
+            this.completer = completer;
+        }
+
+        @Override
+        public void validateBooking(Long bookingId) {
+        }
+
+        @Override
+        public Long requestGroundReservation(Long bookingId) {
+            return null;
+        }
+
+        @Override
+        public void reserveGround(Long bookingId) {
+        }
+
+        @Override
+        public void processPayment(Long bookingId) {
+            completer.charge(new PaymentRequest("booking-" + bookingId, 100, "Booking " + bookingId),
+                    () -> settled.add(bookingId));
+        }
+
+        @Override
+        public void confirmBooking(Long bookingId) {
+            if (expiredHolds.contains(bookingId)) {
+                throw ApplicationFailure.newNonRetryableFailure("Booking " + bookingId + " is no longer pending",
+                        "HoldExpired");
+            }
+            confirmed.add(bookingId);
+        }
+
+        @Override
+        public void markBookingFailed(Long bookingId, String reason) {
+            failed.add(bookingId);
+        }
+
+        @Override
+        public void refundPayment(Long bookingId) {
+            if (settled.contains(bookingId)) {
+                completer.refund(new PaymentRequest("booking-" + bookingId, 100, "Refund for booking " + bookingId),
+                        () -> refunded.add(bookingId));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.BookedSlot;
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.booking.SlotAvailabilityIndex;
+import com.letsplay.payment.PaymentRequest;
+import io.temporal.failure.ApplicationFailure;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class BookingActivitiesImplTest {
+
+    @Test
+    public void testSlotConflictIsNotRetried() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking booking = new Booking(1L, null, null, start, start.plusHours(1), Booking.BookingStatus.PENDING, null);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        SlotAvailabilityIndex index = mock(SlotAvailabilityIndex.class);
+        when(index.findConflict(booking)).thenReturn(Optional.of(new BookedSlot(7L, 3L, start, start.plusHours(1),
+                Booking.BookingStatus.CONFIRMED, false, null, null, true)));
+        BookingActivitiesImpl activities = new BookingActivitiesImpl(bookingRepository, index, null, null, null,
+                null, null);
+
+        ApplicationFailure failure = Assertions.assertThrows(ApplicationFailure.class,
+                () -> activities.validateBooking(1L));
+        Assertions.assertTrue(failure.isNonRetryable());
+        Assertions.assertEquals("SlotConflict", failure.getType());
+        Assertions.assertEquals("Slot already booked by booking 7", failure.getOriginalMessage());
+    }
+
+    @Test
+    public void testOnlyChargedUnconfirmedBookingsAreRefunded() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(charged(1L, Booking.BookingStatus.FAILED, true)));
+        when(bookingRepository.findById(2L)).thenReturn(Optional.of(charged(2L, Booking.BookingStatus.CONFIRMED, true)));
+        when(bookingRepository.findById(3L)).thenReturn(Optional.of(charged(3L, Booking.BookingStatus.FAILED, false)));
+        AsyncPaymentCompleter completer = mock(AsyncPaymentCompleter.class);
+        BookingActivitiesImpl activities = new BookingActivitiesImpl(bookingRepository, null, null, null, completer,
+                null, null);
+
+        activities.refundPayment(1L);
+        activities.refundPayment(2L);
+        activities.refundPayment(3L);
+
+        verify(completer).refund(eq(new PaymentRequest("booking-1", 40.0, "Refund for booking 1")), any());
+        verifyNoMoreInteractions(completer);
+    }
+
+    private static Booking charged(Long id, Booking.BookingStatus status, boolean settled) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking booking = new Booking(id, null, null, start, start.plusHours(1), status, null);
+        booking.setTotalAmount(40.0);
+        booking.setPaymentSettled(settled);
+        return booking;
+    }
+}
@@ -0,0 +1,143 @@
+package com.letsplay.workflow;
+
+import io.temporal.client.WorkflowOptions;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSeriesWorkflowTest {
+
+    private TestWorkflowEnvironment testEnv;
+    private Worker worker;
+    private BookingSeriesWorkflow workflow;
+
+    @BeforeEach
+    public void setUp() {
+        testEnv = TestWorkflowEnvironment.newInstance();
+        worker = testEnv.newWorker("BookingTaskQueue");
+        worker.registerWorkflowImplementationTypes(BookingSeriesWorkflowImpl.class);
+        workflow = testEnv.getWorkflowClient().newWorkflowStub(BookingSeriesWorkflow.class,
+                WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue").build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        testEnv.close();
+    }
+
+    @Test
+    public void testLostOccurrenceDoesNotFailSeries() {
+        BookingActivitiesStub bookingActivities = new BookingActivitiesStub(2L);
+        SeriesActivitiesStub seriesActivities = new SeriesActivitiesStub(List.of(1L, 2L, 3L));
+        worker.registerActivitiesImplementations(bookingActivities, seriesActivities);
+        testEnv.start();
+
+        workflow.processSeries(7L);
+
+        Assertions.assertEquals(List.of(2L), bookingActivities.failed);
+        Assertions.assertEquals(List.of(1L, 3L), seriesActivities.paid);
+        Assertions.assertEquals(List.of(1L, 3L), seriesActivities.confirmed);
+        // Occurrences whose hold lapsed during payment get their share back
+        Assertions.assertEquals(List.of(1L, 3L), seriesActivities.refundChecked);
+        Assertions.assertNull(seriesActivities.failedReason);
+    }
+
+    @Test
+    public void testSeriesFailsWhenNothingIsReserved() {
+        BookingActivitiesStub bookingActivities = new BookingActivitiesStub(1L);
+        SeriesActivitiesStub seriesActivities = new SeriesActivitiesStub(List.of(1L));
+        worker.registerActivitiesImplementations(bookingActivities, seriesActivities);
+        testEnv.start();
+
+        workflow.processSeries(7L);
+
+        Assertions.assertTrue(seriesActivities.paid.isEmpty());
+        Assertions.assertNotNull(seriesActivities.failedReason);
+    }
+
+    static class BookingActivitiesStub implements BookingActivities {
+        private final Long takenBookingId;
+        public List<Long> failed = new ArrayList<>();
+
+        BookingActivitiesStub(Long takenBookingId) {
+            this.takenBookingId = takenBookingId;
+        }
+
+        @Override
+        public void validateBooking(Long bookingId) {
+        }
+
+        @Override
+        public Long requestGroundReservation(Long bookingId) {
+            return null;
+        }
+
+        @Override
+        public void reserveGround(Long bookingId) {
+            if (bookingId.equals(takenBookingId)) {
+                throw ApplicationFailure.newNonRetryableFailure("Slot already reserved", "SlotConflict");
+            }
+        }
+
+        @Override
+        public void processPayment(Long bookingId) {
+        }
+
+        @Override
+        public void confirmBooking(Long bookingId) {
+        }
+
+        @Override
+        public void markBookingFailed(Long bookingId, String reason) {
+            failed.add(bookingId);
+        }
+
+        @Override
+        public void refundPayment(Long bookingId) {
+        }
+    }
+
+    static class SeriesActivitiesStub implements BookingSeriesActivities {
+        private final List<Long> bookingIds;
+        public List<Long> paid = new ArrayList<>();
+        public List<Long> confirmed = new ArrayList<>();
+        public List<Long> refundChecked = new ArrayList<>();
+        public String failedReason;
+
+        SeriesActivitiesStub(List<Long> bookingIds) {
+            this.bookingIds = bookingIds;
+        }
+
+        @Override
+        public List<Long> getSeriesBookingIds(Long seriesId) {
+            return bookingIds;
+        }
+
+        @Override
+        public void processSeriesPayment(Long seriesId, List<Long> bookingIds) {
+            paid.addAll(bookingIds);
+        }
+
+        @Override
+        public void confirmSeries(Long seriesId, List<Long> bookingIds) {
+            confirmed.addAll(bookingIds);
+        }
+
+        @Override
+        public void markSeriesFailed(Long seriesId, List<Long> bookingIds, String reason) {
+            failedReason = reason;
+        }
+
+        @Override
+        public void refundUnconfirmed(Long seriesId, List<Long> bookingIds) {
+            refundChecked.addAll(bookingIds);
+        }
+    }
+}
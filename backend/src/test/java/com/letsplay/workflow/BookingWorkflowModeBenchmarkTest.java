@@ -0,0 +1,91 @@
+package com.letsplay.workflow;
+
+import io.temporal.api.history.v1.History;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BookingWorkflowImpl} with regular and with local activities for the short steps.
+ * Activities are no-ops, so the numbers are pure orchestration cost: end-to-end latency per booking
+ * and the size of each booking's history. Runs against the in-memory test server, so real task queue
+ * round trips over the network widen the latency gap further.
+ */
+public class BookingWorkflowModeBenchmarkTest {
+
+    private static final int WARMUP = 20;
+    private static final int BOOKINGS = 200;
+
+    private TestWorkflowEnvironment testEnv;
+
+    @BeforeEach
+    public void setUp() {
+        testEnv = TestWorkflowEnvironment.newInstance();
+        Worker worker = testEnv.newWorker("BookingTaskQueue");
+        worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new BookingWorkflowTest.BookingActivitiesStub());
+        testEnv.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        testEnv.close();
+    }
+
+    @Test
+    public void testLocalActivitiesShrinkHistory() {
+        run(false, WARMUP);
+        run(true, WARMUP);
+        Result remote = run(false, BOOKINGS);
+        Result local = run(true, BOOKINGS);
+
+        System.out.printf("regular activities: %s%nlocal activities:   %s%n", remote, local);
+        Assertions.assertTrue(local.events < remote.events);
+        Assertions.assertTrue(local.bytes < remote.bytes);
+    }
+
+    private Result run(boolean localActivities, int bookings) {
+        WorkflowClient client = testEnv.getWorkflowClient();
+        List<Long> latencies = new ArrayList<>();
+        long events = 0;
+        long bytes = 0;
+        for (long bookingId = 1; bookingId <= bookings; bookingId++) {
+            BookingWorkflow workflow = client.newWorkflowStub(BookingWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue").build());
+            long began = System.nanoTime();
+            WorkflowClient.start(workflow::processBooking, bookingId, localActivities, false);
+            WorkflowStub stub = WorkflowStub.fromTyped(workflow);
+            try {
+                stub.getResult(10, TimeUnit.SECONDS, Void.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            latencies.add(System.nanoTime() - began);
+
+            History history = client.fetchHistory(stub.getExecution().getWorkflowId()).getHistory();
+            events += history.getEventsCount();
+            bytes += history.getSerializedSize();
+        }
+        latencies.sort(null);
+        return new Result(latencies.get(bookings / 2), latencies.get(bookings * 99 / 100), (double) events / bookings,
+                (double) bytes / bookings);
+    }
+
+    private record Result(long p50Nanos, long p99Nanos, double events, double bytes) {
+        @Override
+        public String toString() {
+            return String.format("p50 %.2f ms, p99 %.2f ms, %.1f history events, %.0f history bytes per booking",
+                    p50Nanos / 1e6, p99Nanos / 1e6, events, bytes);
+        }
+    }
+}
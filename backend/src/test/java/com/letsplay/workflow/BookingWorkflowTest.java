@@ -1,6 +1,11 @@
 package com.letsplay.workflow;
 
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowFailedException;
 import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.failure.ApplicationFailure;
 import io.temporal.testing.TestWorkflowEnvironment;
 import io.temporal.worker.Worker;
 import org.junit.jupiter.api.AfterEach;
@@ -10,6 +15,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 public class BookingWorkflowTest {
 
@@ -21,6 +27,7 @@ public class BookingWorkflowTest {
     public void setUp() {
         testEnv = TestWorkflowEnvironment.newInstance();
         worker = testEnv.newWorker("BookingTaskQueue");
+        worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class);
         workflow = testEnv.getWorkflowClient().newWorkflowStub(BookingWorkflow.class,
                 WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue").build());
     }
@@ -39,7 +46,7 @@ public class BookingWorkflowTest {
         testEnv.start();
 
         // Execution
-        workflow.processBooking(1L);
+        workflow.processBooking(1L, false, false);
 
         // Verification
         Assertions.assertTrue(activities.invokedMethods.contains("validateBooking"));
@@ -48,6 +55,102 @@ public class BookingWorkflowTest {
         Assertions.assertTrue(activities.invokedMethods.contains("confirmBooking"));
     }
 
+    @Test
+    public void testSuccessfulBookingWithLocalActivities() {
+        BookingActivitiesStub activities = new BookingActivitiesStub();
+        worker.registerActivitiesImplementations(activities);
+
+        testEnv.start();
+
+        workflow.processBooking(1L, true, false);
+
+        Assertions.assertEquals(List.of("validateBooking", "reserveGround", "processPayment", "confirmBooking"),
+                activities.invokedMethods);
+        // Only payment goes through the task queue
+        String workflowId = WorkflowStub.fromTyped(workflow).getExecution().getWorkflowId();
+        long scheduled = testEnv.getWorkflowClient().fetchHistory(workflowId).getEvents().stream()
+                .filter(event -> event.getEventType() == EventType.EVENT_TYPE_ACTIVITY_TASK_SCHEDULED)
+                .count();
+        Assertions.assertEquals(1, scheduled);
+    }
+
+    @Test
+    public void testProgressFollowsTheSteps() throws Exception {
+        CountDownLatch paymentStarted = new CountDownLatch(1);
+        CountDownLatch releasePayment = new CountDownLatch(1);
+        worker.registerActivitiesImplementations(new BookingActivitiesStub() {
+            @Override
+            public void processPayment(Long bookingId) {
+                paymentStarted.countDown();
+                try {
+                    releasePayment.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        testEnv.start();
+
+        WorkflowClient.start(workflow::processBooking, 1L, false, false);
+        paymentStarted.await();
+        Assertions.assertEquals(BookingProgress.of(BookingProgress.Stage.PAYING), workflow.getProgress());
+
+        releasePayment.countDown();
+        WorkflowStub.fromTyped(workflow).getResult(Void.class);
+        Assertions.assertEquals(BookingProgress.of(BookingProgress.Stage.CONFIRMED), workflow.getProgress());
+    }
+
+    @Test
+    public void testProgressCarriesFailureReason() {
+        BookingActivitiesStub activities = new BookingActivitiesStub() {
+            @Override
+            public void reserveGround(Long bookingId) {
+                throw ApplicationFailure.newNonRetryableFailure("Slot already reserved by booking 7", "SlotConflict");
+            }
+        };
+        worker.registerActivitiesImplementations(activities);
+        testEnv.start();
+
+        Assertions.assertThrows(WorkflowFailedException.class, () -> workflow.processBooking(1L, false, false));
+
+        Assertions.assertEquals(BookingProgress.failed("Slot already reserved by booking 7"), workflow.getProgress());
+        Assertions.assertTrue(activities.invokedMethods.contains("markBookingFailed"));
+    }
+
+    @Test
+    public void testChargeIsRefundedWhenConfirmationFails() {
+        BookingActivitiesStub activities = new BookingActivitiesStub() {
+            @Override
+            public void confirmBooking(Long bookingId) {
+                invokedMethods.add("confirmBooking");
+                throw ApplicationFailure.newNonRetryableFailure("Booking 1 is no longer pending", "HoldExpired");
+            }
+        };
+        worker.registerActivitiesImplementations(activities);
+        testEnv.start();
+
+        Assertions.assertThrows(WorkflowFailedException.class, () -> workflow.processBooking(1L, false, false));
+
+        Assertions.assertEquals(List.of("validateBooking", "reserveGround", "processPayment", "confirmBooking",
+                "markBookingFailed", "refundPayment"), activities.invokedMethods);
+    }
+
+    @Test
+    public void testNoRefundBeforePayment() {
+        BookingActivitiesStub activities = new BookingActivitiesStub() {
+            @Override
+            public void reserveGround(Long bookingId) {
+                throw ApplicationFailure.newNonRetryableFailure("Slot already reserved by booking 7", "SlotConflict");
+            }
+        };
+        worker.registerActivitiesImplementations(activities);
+        testEnv.start();
+
+        Assertions.assertThrows(WorkflowFailedException.class, () -> workflow.processBooking(1L, false, false));
+
+        Assertions.assertFalse(activities.invokedMethods.contains("refundPayment"));
+    }
+
     // Manual Stub to avoid Mockito/Temporal annotation conflicts
     static class BookingActivitiesStub implements BookingActivities {
         public List<String> invokedMethods = new ArrayList<>();
@@ -57,6 +160,12 @@ public class BookingWorkflowTest {
             invokedMethods.add("validateBooking");
         }
 
+        @Override
+        public Long requestGroundReservation(Long bookingId) {
+            invokedMethods.add("requestGroundReservation");
+            return null;
+        }
+
         @Override
         public void reserveGround(Long bookingId) {
             invokedMethods.add("reserveGround");
@@ -76,5 +185,10 @@ public class BookingWorkflowTest {
         public void markBookingFailed(Long bookingId, String reason) {
             invokedMethods.add("markBookingFailed");
         }
+
+        @Override
+        public void refundPayment(Long bookingId) {
+            invokedMethods.add("refundPayment");
+        }
     }
 }
@@ -0,0 +1,161 @@
+package com.letsplay.workflow;
+
+import io.temporal.client.BatchRequest;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowFailedException;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class GroundReservationWorkflowTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    private TestWorkflowEnvironment testEnv;
+    private GroundBookingActivitiesStub activities;
+
+    @BeforeEach
+    public void setUp() {
+        testEnv = TestWorkflowEnvironment.newInstance();
+        Worker worker = testEnv.newWorker("BookingTaskQueue");
+        worker.registerWorkflowImplementationTypes(BookingWorkflowImpl.class);
+        // Small history limit so the tests cross a continue-as-new
+        worker.registerWorkflowImplementationFactory(GroundReservationWorkflow.class,
+                () -> new GroundReservationWorkflowImpl(40));
+        activities = new GroundBookingActivitiesStub(testEnv.getWorkflowClient());
+        worker.registerActivitiesImplementations(activities, (GroundReservationActivities) groundId -> List.of(
+                new SlotClaim(100L, null, EVENING.minusHours(3), EVENING.minusHours(2))));
+        testEnv.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        testEnv.close();
+    }
+
+    @Test
+    public void testOverlappingClaimIsRefused() {
+        activities.slot(1L, EVENING, EVENING.plusHours(2));
+        activities.slot(2L, EVENING.plusHours(1), EVENING.plusHours(2));
+        activities.slot(3L, EVENING.plusHours(2), EVENING.plusHours(3));
+        // Loaded from the database when the ground workflow started
+        activities.slot(4L, EVENING.minusHours(3), EVENING.minusHours(2));
+
+        book(1L);
+        Assertions.assertThrows(WorkflowFailedException.class, () -> book(2L));
+        book(3L);
+        Assertions.assertThrows(WorkflowFailedException.class, () -> book(4L));
+
+        Assertions.assertEquals(List.of(1L, 3L), activities.confirmed);
+        Assertions.assertEquals(Set.of(2L, 4L), activities.failed.keySet());
+        Assertions.assertTrue(activities.failed.get(2L).contains("booking 1"));
+    }
+
+    @Test
+    public void testFailedBookingReleasesItsSlot() {
+        activities.slot(1L, EVENING, EVENING.plusHours(1));
+        activities.slot(2L, EVENING, EVENING.plusHours(1));
+        activities.declinedPayments.add(1L);
+
+        Assertions.assertThrows(WorkflowFailedException.class, () -> book(1L));
+        book(2L);
+
+        Assertions.assertEquals(List.of(2L), activities.confirmed);
+    }
+
+    @Test
+    public void testClaimsSurviveContinueAsNew() {
+        for (long id = 1; id <= 10; id++) {
+            activities.slot(id, EVENING.plusHours(id), EVENING.plusHours(id + 1));
+            book(id);
+        }
+        activities.slot(11L, EVENING.plusHours(1), EVENING.plusHours(2));
+        Assertions.assertThrows(WorkflowFailedException.class, () -> book(11L));
+
+        // The current run of the ground workflow was continued from an earlier one
+        String continuedFrom = testEnv.getWorkflowClient().fetchHistory(GroundReservationWorkflow.workflowIdFor(1L))
+                .getEvents().get(0).getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId();
+        Assertions.assertFalse(continuedFrom.isEmpty());
+        Assertions.assertEquals(10, activities.confirmed.size());
+    }
+
+    private void book(Long bookingId) {
+        BookingWorkflow workflow = testEnv.getWorkflowClient().newWorkflowStub(BookingWorkflow.class,
+                WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue")
+                        .setWorkflowId(WorkflowOutboxDispatcher.workflowIdFor(bookingId)).build());
+        workflow.processBooking(bookingId, false, true);
+    }
+
+    // Every booking is on ground 1
+    static class GroundBookingActivitiesStub implements BookingActivities {
+        private final WorkflowClient client;
+        private final Map<Long, LocalDateTime[]> slots = new ConcurrentHashMap<>();
+        final Set<Long> declinedPayments = ConcurrentHashMap.newKeySet();
+        final List<Long> confirmed = new CopyOnWriteArrayList<>();
+        final Map<Long, String> failed = new ConcurrentHashMap<>();
+
+        GroundBookingActivitiesStub(WorkflowClient client) {
+            this.client = client;
+        }
+
+        void slot(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            slots.put(bookingId, new LocalDateTime[] {start, end});
+        }
+
+        @Override
+        public void validateBooking(Long bookingId) {
+        }
+
+        @Override
+        public Long requestGroundReservation(Long bookingId) {
+            LocalDateTime[] slot = slots.get(bookingId);
+            GroundReservationWorkflow ground = client.newWorkflowStub(GroundReservationWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue("BookingTaskQueue")
+                            .setWorkflowId(GroundReservationWorkflow.workflowIdFor(1L)).build());
+            BatchRequest request = client.newSignalWithStartRequest();
+            request.add(ground::run, 1L, null);
+            request.add(ground::requestReservation, new SlotClaim(bookingId,
+                    WorkflowOutboxDispatcher.workflowIdFor(bookingId), slot[0], slot[1]));
+            client.signalWithStart(request);
+            return 1L;
+        }
+
+        @Override
+        public void reserveGround(Long bookingId) {
+        }
+
+        @Override
+        public void processPayment(Long bookingId) {
+            if (declinedPayments.contains(bookingId)) {
+                throw ApplicationFailure.newNonRetryableFailure("Card declined", "PaymentDeclined");
+            }
+        }
+
+        @Override
+        public void confirmBooking(Long bookingId) {
+            confirmed.add(bookingId);
+        }
+
+        @Override
+        public void markBookingFailed(Long bookingId, String reason) {
+            failed.put(bookingId, reason);
+        }
+
+        @Override
+        public void refundPayment(Long bookingId) {
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.letsplay.workflow;
+
+import com.letsplay.booking.Booking;
+import com.letsplay.booking.BookingRepository;
+import com.letsplay.payment.PaymentGateway;
+import com.letsplay.payment.PaymentRequest;
+import com.letsplay.payment.PaymentResult;
+import io.temporal.failure.ApplicationFailure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InProcessBookingPipelineTest {
+
+    private final Map<Long, BookingPipelineRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong runIds = new AtomicLong();
+    private BookingRepository bookingRepository;
+    private BookingActivitiesImpl bookingActivities;
+    private CompletableFuture<PaymentResult> payment;
+    private final List<PaymentRequest> refunds = new CopyOnWriteArrayList<>();
+    private InProcessBookingPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        BookingPipelineRunRepository runRepository = mock(BookingPipelineRunRepository.class);
+        when(runRepository.save(any())).thenAnswer(invocation -> {
+            BookingPipelineRun run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                ReflectionTestUtils.setField(run, "id", runIds.incrementAndGet());
+            }
+            runs.put(run.getId(), run);
+            return run;
+        });
+        when(runRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(runs.get(invocation.<Long>getArgument(0))));
+        when(runRepository.findByStepNotIn(any())).thenAnswer(invocation ->
+                runs.values().stream().filter(run -> !run.isFinished()).toList());
+
+        bookingRepository = mock(BookingRepository.class);
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setTotalAmount(40.0);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+
+        bookingActivities = mock(BookingActivitiesImpl.class);
+        payment = CompletableFuture.completedFuture(PaymentResult.approved("ref"));
+        pipeline = new InProcessBookingPipeline(runRepository, bookingRepository, bookingActivities,
+                mock(BookingSeriesActivitiesImpl.class), new PaymentGateway() {
+                    @Override
+                    public CompletableFuture<PaymentResult> charge(PaymentRequest request) {
+                        return payment;
+                    }
+
+                    @Override
+                    public CompletableFuture<PaymentResult> refund(PaymentRequest request) {
+                        refunds.add(request);
+                        return CompletableFuture.completedFuture(PaymentResult.approved("refund-ref"));
+                    }
+                }, mock(PlatformTransactionManager.class), 2, 3, 1);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    public void testBookingRunsThroughAllSteps() throws Exception {
+        pipeline.enqueue(1L);
+
+        BookingPipelineRun run = awaitFinished(1L);
+        Assertions.assertEquals(BookingPipelineRun.Step.DONE, run.getStep());
+        InOrder steps = inOrder(bookingActivities, bookingRepository);
+        steps.verify(bookingActivities).validateBooking(1L);
+        steps.verify(bookingActivities).reserveGround(1L);
+        steps.verify(bookingRepository).markPaymentSettled(List.of(1L));
+        steps.verify(bookingActivities).confirmBooking(1L);
+    }
+
+    @Test
+    public void testRetryableFailureIsRetried() throws Exception {
+        doThrow(new RuntimeException("Ground is busy")).doNothing().when(bookingActivities).reserveGround(1L);
+
+        pipeline.enqueue(1L);
+
+        Assertions.assertEquals(BookingPipelineRun.Step.DONE, awaitFinished(1L).getStep());
+        verify(bookingActivities, times(2)).reserveGround(1L);
+        verify(bookingActivities, never()).markBookingFailed(anyLong(), any());
+    }
+
+    @Test
+    public void testNonRetryableFailureFailsBooking() throws Exception {
+        doThrow(ApplicationFailure.newNonRetryableFailure("Slot already reserved by booking 7", "SlotConflict"))
+                .when(bookingActivities).reserveGround(1L);
+
+        pipeline.enqueue(1L);
+
+        BookingPipelineRun run = awaitFinished(1L);
+        Assertions.assertEquals(BookingPipelineRun.Step.FAILED, run.getStep());
+        verify(bookingActivities, times(1)).reserveGround(1L);
+        verify(bookingActivities).markBookingFailed(1L, "Slot already reserved by booking 7");
+        verify(bookingActivities, never()).confirmBooking(anyLong());
+    }
+
+    @Test
+    public void testDeclinedPaymentFailsBooking() throws Exception {
+        payment = CompletableFuture.completedFuture(PaymentResult.declined("Card declined"));
+
+        pipeline.enqueue(1L);
+
+        Assertions.assertEquals(BookingPipelineRun.Step.FAILED, awaitFinished(1L).getStep());
+        verify(bookingActivities).markBookingFailed(eq(1L), eq("Payment declined: Card declined"));
+    }
+
+    @Test
+    public void testChargeIsRefundedWhenHoldLapsedDuringPayment() throws Exception {
+        doThrow(ApplicationFailure.newNonRetryableFailure("Booking 1 is no longer pending", "HoldExpired"))
+                .when(bookingActivities).confirmBooking(1L);
+        Booking expired = new Booking();
+        expired.setId(1L);
+        expired.setTotalAmount(40.0);
+        expired.setStatus(Booking.BookingStatus.FAILED);
+        expired.setPaymentSettled(true);
+        when(bookingRepository.findAllById(List.of(1L))).thenReturn(List.of(expired));
+
+        pipeline.enqueue(1L);
+
+        Assertions.assertEquals(BookingPipelineRun.Step.FAILED, awaitFinished(1L).getStep());
+        // The refund follows the committed failure
+        verify(bookingRepository, timeout(5000)).markPaymentRefunded(List.of(1L));
+        Assertions.assertEquals(List.of(new PaymentRequest("booking-1", 40.0, "Refund for booking 1")), refunds);
+    }
+
+    @Test
+    public void testDeclinedPaymentIsNotRefunded() throws Exception {
+        payment = CompletableFuture.completedFuture(PaymentResult.declined("Card declined"));
+
+        pipeline.enqueue(1L);
+
+        Assertions.assertEquals(BookingPipelineRun.Step.FAILED, awaitFinished(1L).getStep());
+        Assertions.assertTrue(refunds.isEmpty());
+    }
+
+    @Test
+    public void testUnfinishedRunResumesAtItsStep() throws Exception {
+        BookingPipelineRun interrupted = new BookingPipelineRun(BookingPipelineRun.Kind.BOOKING, 1L);
+        interrupted.advance(BookingPipelineRun.Step.PAYMENT);
+        ReflectionTestUtils.setField(interrupted, "id", runIds.incrementAndGet());
+        runs.put(interrupted.getId(), interrupted);
+
+        pipeline.resumeUnfinished();
+
+        Assertions.assertEquals(BookingPipelineRun.Step.DONE, awaitFinished(1L).getStep());
+        verify(bookingActivities, never()).validateBooking(anyLong());
+        verify(bookingActivities, never()).reserveGround(anyLong());
+        verify(bookingActivities).confirmBooking(1L);
+    }
+
+    private BookingPipelineRun awaitFinished(Long runId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            BookingPipelineRun run = runs.get(runId);
+            if (run != null && run.isFinished()) {
+                return run;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Run " + runId + " did not finish");
+    }
+}
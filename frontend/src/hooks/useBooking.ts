@@ -15,6 +15,9 @@ export interface Booking {
     joinedPlayers?: number;
 }
 
+// Longest wait for the next status event before switching to polling
+const STATUS_EVENT_TIMEOUT_MS = 15000;
+
 export function useBooking() {
     const [status, setStatus] = useState<Booking['status'] | null>(null);
     const [bookingId, setBookingId] = useState<number | null>(null);
@@ -23,7 +26,9 @@ export function useBooking() {
 
     // To stop polling when component unmounts
     const pollTimerRef = useRef<NodeJS.Timeout | null>(null);
+    const eventSourceRef = useRef<EventSource | null>(null);
 
+    // Fallback for when the event stream cannot be opened
     const pollStatus = useCallback(async (id: number) => {
         try {
             const res = await fetch(`${API_BASE_URL}/bookings/${id}`);
@@ -47,6 +52,45 @@ export function useBooking() {
         }
     }, []);
 
+    // Server pushes every status change; the stream closes once the booking settles
+    const watchStatus = useCallback((id: number) => {
+        if (typeof EventSource === 'undefined') {
+            pollStatus(id);
+            return;
+        }
+
+        eventSourceRef.current?.close();
+        const source = new EventSource(`${API_BASE_URL}/bookings/${id}/events`);
+        eventSourceRef.current = source;
+        let settled = false;
+
+        // An event published while the server was out of touch never arrives; poll instead of waiting
+        const fallBackToPolling = () => {
+            clearTimeout(quietTimer);
+            source.close();
+            if (!settled) {
+                settled = true;
+                pollStatus(id);
+            }
+        };
+        let quietTimer = setTimeout(fallBackToPolling, STATUS_EVENT_TIMEOUT_MS);
+
+        source.addEventListener('status', (event) => {
+            const data: { status: Booking['status'] } = JSON.parse((event as MessageEvent).data);
+            setStatus(data.status);
+            clearTimeout(quietTimer);
+            if (data.status !== 'PENDING') {
+                settled = true;
+                setIsLoading(false);
+                source.close();
+            } else {
+                quietTimer = setTimeout(fallBackToPolling, STATUS_EVENT_TIMEOUT_MS);
+            }
+        });
+
+        source.onerror = fallBackToPolling;
+    }, [pollStatus]);
+
     // Helper to get current user ID
     const getUserId = () => {
         const userStr = localStorage.getItem('user');
@@ -101,8 +145,8 @@ export function useBooking() {
             const booking: Booking = await response.json();
             setBookingId(booking.id!);
 
-            // Start Polling
-            pollStatus(booking.id!);
+            // Track status until the booking settles
+            watchStatus(booking.id!);
 
         } catch (e: any) {
             console.error(e);
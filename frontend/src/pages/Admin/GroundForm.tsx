@@ -16,6 +16,8 @@ export default function GroundForm({ onClose, onSuccess, initialData }: GroundFo
         description: '',
         pricePerHour: '',
         imageUrl: '',
+        latitude: '',
+        longitude: '',
         ownerId: ''
     });
     const [loading, setLoading] = useState(false);
@@ -29,6 +31,8 @@ export default function GroundForm({ onClose, onSuccess, initialData }: GroundFo
                 description: initialData.description,
                 pricePerHour: initialData.pricePerHour,
                 imageUrl: initialData.imageUrl,
+                latitude: initialData.latitude ?? '',
+                longitude: initialData.longitude ?? '',
                 ownerId: initialData.owner?.id || ''
             });
         }
@@ -41,6 +45,8 @@ export default function GroundForm({ onClose, onSuccess, initialData }: GroundFo
         const payload = {
             ...formData,
             pricePerHour: Number(formData.pricePerHour),
+            latitude: formData.latitude === '' ? null : Number(formData.latitude),
+            longitude: formData.longitude === '' ? null : Number(formData.longitude),
             owner: { id: Number(formData.ownerId) }
         };
 
@@ -141,6 +147,37 @@ export default function GroundForm({ onClose, onSuccess, initialData }: GroundFo
                         />
                     </div>
 
+                    <div className="grid grid-cols-2 gap-4">
+                        <div>
+                            <label className="block text-sm font-medium text-slate-700 mb-1">Latitude</label>
+                            <input
+                                type="number"
+                                step="any"
+                                min="-90"
+                                max="90"
+                                required={formData.longitude !== ''}
+                                className="w-full p-2 border rounded-lg focus:ring-2 focus:ring-emerald-500 outline-none"
+                                value={formData.latitude}
+                                onChange={e => setFormData({ ...formData, latitude: e.target.value })}
+                                placeholder="12.9716"
+                            />
+                        </div>
+                        <div>
+                            <label className="block text-sm font-medium text-slate-700 mb-1">Longitude</label>
+                            <input
+                                type="number"
+                                step="any"
+                                min="-180"
+                                max="180"
+                                required={formData.latitude !== ''}
+                                className="w-full p-2 border rounded-lg focus:ring-2 focus:ring-emerald-500 outline-none"
+                                value={formData.longitude}
+                                onChange={e => setFormData({ ...formData, longitude: e.target.value })}
+                                placeholder="77.5946"
+                            />
+                        </div>
+                    </div>
+
                     <div>
                         <label className="block text-sm font-medium text-slate-700 mb-1">Image URL</label>
                         <input
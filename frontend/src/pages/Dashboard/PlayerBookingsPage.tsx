@@ -28,15 +28,41 @@ export default function PlayerBookingsPage() {
     const [bookings, setBookings] = useState<Booking[]>([]);
     const [loading, setLoading] = useState(true);
     const [filter, setFilter] = useState<'all' | 'upcoming' | 'past'>('upcoming');
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     // Rating Modal State
     const [isRatingModalOpen, setIsRatingModalOpen] = useState(false);
     const [selectedBookingId, setSelectedBookingId] = useState<number | null>(null);
     const [ratingPlayers, setRatingPlayers] = useState<{ id: number; name: string }[]>([]);
 
+    // GET /bookings is keyset-paginated; upcoming games start from today instead of behind the whole history
+    const fetchPage = async (cursor: string | null) => {
+        const params = new URLSearchParams({ size: '50' });
+        if (filter === 'upcoming') params.set('from', new Date().toLocaleDateString('en-CA'));
+        if (cursor) params.set('cursor', cursor);
+        const res = await fetch(`${API_BASE_URL}/bookings?${params}`);
+        const data: Booking[] = await res.json();
+        setNextCursor(res.headers.get('X-Next-Cursor'));
+        return data;
+    };
+
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const data = await fetchPage(nextCursor);
+            setBookings(prev => [...prev, ...data]);
+        } catch (err) {
+            console.error(err);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     useEffect(() => {
-        fetch(`${API_BASE_URL}/bookings`)
-            .then(res => res.json())
+        setLoading(true);
+        fetchPage(null)
             .then(data => {
                 setBookings(data);
                 setLoading(false);
@@ -45,7 +71,7 @@ export default function PlayerBookingsPage() {
                 console.error(err);
                 setLoading(false);
             });
-    }, []);
+    }, [filter]);
 
     const handleRateClick = async (bookingId: number) => {
         // Fetch detailed booking info to get players
@@ -272,6 +298,14 @@ export default function PlayerBookingsPage() {
                     })}
                 </div>
             )}
+
+            {nextCursor && (
+                <div className="text-center">
+                    <Button variant="outline" onClick={loadMore} isLoading={loadingMore}>
+                        Load more
+                    </Button>
+                </div>
+            )}
         </div>
     );
 }
@@ -35,6 +35,8 @@ interface Booking {
 export default function MyBookingsPage() {
     const [bookings, setBookings] = useState<Booking[]>([]);
     const [loading, setLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [filter, setFilter] = useState<'all' | 'upcoming' | 'past'>('all');
 
     // State for Requests
@@ -81,11 +83,33 @@ export default function MyBookingsPage() {
         }
     };
 
+    // GET /bookings is keyset-paginated; the cursor for the next page comes back in X-Next-Cursor
+    const fetchPage = async (cursor: string | null) => {
+        const params = new URLSearchParams({ size: '50' });
+        if (cursor) params.set('cursor', cursor);
+        const res = await fetch(`${API_BASE_URL}/bookings?${params}`);
+        const data: Booking[] = await res.json();
+        setNextCursor(res.headers.get('X-Next-Cursor'));
+        return data;
+    };
+
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const data = await fetchPage(nextCursor);
+            setBookings(prev => [...prev, ...data]);
+        } catch (err) {
+            console.error(err);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     useEffect(() => {
         // In a real app, fetch user's bookings
         // For now, fetch all bookings as demo
-        fetch(`${API_BASE_URL}/bookings`)
-            .then(res => res.json())
+        fetchPage(null)
             .then(data => {
                 setBookings(data);
                 setLoading(false);
@@ -322,6 +346,13 @@ export default function MyBookingsPage() {
                                 </div>
                             </div>
                         ))}
+                        {nextCursor && (
+                            <div className="text-center">
+                                <Button variant="outline" onClick={loadMore} isLoading={loadingMore}>
+                                    Load more
+                                </Button>
+                            </div>
+                        )}
                     </div>
                 )}
             </div>
@@ -26,23 +26,52 @@ export default function PublicGamesPage() {
     const [loading, setLoading] = useState(true);
     const navigate = useNavigate();
     const [filterSport, setFilterSport] = useState<string>('All');
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
+
+    // The feed is filtered by sport on the server and keyset-paginated through X-Next-Cursor
+    const fetchPage = async (sport: string, cursor: string | null) => {
+        const params = new URLSearchParams({ size: '20' });
+        if (sport !== 'All') params.set('sport', sport);
+        if (cursor) params.set('cursor', cursor);
+        const res = await fetch(`${API_BASE_URL}/bookings/public?${params}`);
+        const data: PublicBooking[] = await res.json();
+        return { data, cursor: res.headers.get('X-Next-Cursor') };
+    };
+
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const page = await fetchPage(filterSport, nextCursor);
+            setGames(prev => [...prev, ...page.data]);
+            setNextCursor(page.cursor);
+        } catch (err) {
+            console.error(err);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
 
     useEffect(() => {
-        fetch(`${API_BASE_URL}/bookings/public`)
-            .then(res => res.json())
-            .then(data => {
-                setGames(data);
+        // A slower response for the previously selected sport must not replace this one
+        let current = true;
+        setLoading(true);
+        fetchPage(filterSport, null)
+            .then(page => {
+                if (!current) return;
+                setGames(page.data);
+                setNextCursor(page.cursor);
                 setLoading(false);
             })
             .catch(err => {
                 console.error(err);
-                setLoading(false);
+                if (current) setLoading(false);
             });
-    }, []);
-
-    const filteredGames = filterSport === 'All'
-        ? games
-        : games.filter(g => g.ground.sportType === filterSport);
+        return () => {
+            current = false;
+        };
+    }, [filterSport]);
 
     return (
         <div className="min-h-screen bg-slate-50 py-8">
@@ -76,7 +105,7 @@ export default function PublicGamesPage() {
                 {/* Games Grid */}
                 {loading ? (
                     <div className="text-center py-20">Loading games...</div>
-                ) : filteredGames.length === 0 ? (
+                ) : games.length === 0 ? (
                     <div className="text-center py-20 bg-white rounded-2xl border border-slate-100">
                         <h3 className="text-xl font-bold text-slate-900 mb-2">No games found</h3>
                         <p className="text-slate-500 mb-6">Be the first to create a public game!</p>
@@ -84,7 +113,7 @@ export default function PublicGamesPage() {
                     </div>
                 ) : (
                     <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-                        {filteredGames.map(game => {
+                        {games.map(game => {
                             const startDate = new Date(game.startTime);
                             const endDate = new Date(game.endTime);
                             const spotsLeft = game.maxPlayers - game.joinedPlayers;
@@ -148,6 +177,14 @@ export default function PublicGamesPage() {
                         })}
                     </div>
                 )}
+
+                {!loading && nextCursor && (
+                    <div className="text-center mt-8">
+                        <Button variant="outline" onClick={loadMore} isLoading={loadingMore}>
+                            Load more games
+                        </Button>
+                    </div>
+                )}
             </div>
         </div>
     );